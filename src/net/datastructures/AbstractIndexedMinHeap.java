@@ -0,0 +1,116 @@
+package net.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the binary min-heaps of the integers 0..n-1 (typically vertex indices).
+ *
+ * Unlike HeapAdaptablePriorityQueue, no entry objects are created: the heap is an int array
+ * and a second array records the position of every item in the heap, so that the key of an
+ * item can be decreased in O(log n) time. The keys themselves are kept by each subclass,
+ * which only has to compare the keys of two items.
+ */
+public abstract class AbstractIndexedMinHeap {
+  private int[] heap;             // heap[j] is the item stored at position j
+  private int[] pos;              // pos[i] is the position of item i, or -1 if absent
+  private int size = 0;
+
+  /** Creates an empty heap able to hold the items 0..capacity-1. */
+  protected AbstractIndexedMinHeap(int capacity) {
+    heap = new int[capacity];
+    pos = new int[capacity];
+    Arrays.fill(pos, -1);
+  }
+
+  /** Returns true if the key of item a is smaller than the key of item b. */
+  protected abstract boolean less(int a, int b);
+
+  /** Returns the number of items in the heap. */
+  public int size() { return size; }
+
+  /** Returns true if the heap is empty. */
+  public boolean isEmpty() { return size == 0; }
+
+  /** Returns true if item i is currently in the heap. */
+  public boolean contains(int i) { return pos[i] >= 0; }
+
+  /** Returns (but does not remove) an item with minimal key. */
+  public int min() {
+    if (size == 0) throw new IllegalStateException("Heap is empty");
+    return heap[0];
+  }
+
+  /** Removes and returns an item with minimal key. */
+  public int removeMin() {
+    int answer = min();
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];               // move last item to the root
+      pos[heap[0]] = 0;
+      downheap(0);
+    }
+    pos[answer] = -1;
+    return answer;
+  }
+
+  /** Removes every item from the heap (in time proportional to the current size). */
+  public void clear() {
+    for (int j=0; j < size; j++)
+      pos[heap[j]] = -1;
+    size = 0;
+  }
+
+  /**
+   * Adds item i, whose key the subclass has already stored.
+   * @throws IllegalArgumentException if i is already in the heap
+   */
+  protected void add(int i) throws IllegalArgumentException {
+    if (pos[i] >= 0) throw new IllegalArgumentException("Item already in heap");
+    heap[size] = i;
+    pos[i] = size;
+    upheap(size++);
+  }
+
+  /** Restores the heap property after the key of item i, which is in the heap, decreased. */
+  protected void keyDecreased(int i) { upheap(pos[i]); }
+
+  /** Makes room for the items 0..capacity-1, if the heap cannot hold them yet. */
+  protected void ensureCapacity(int capacity) {
+    if (capacity > pos.length) {
+      int old = pos.length;
+      heap = Arrays.copyOf(heap, capacity);
+      pos = Arrays.copyOf(pos, capacity);
+      Arrays.fill(pos, old, capacity, -1);
+    }
+  }
+
+  /** Moves the item at position j higher, if necessary, to restore the heap property. */
+  private void upheap(int j) {
+    int item = heap[j];
+    while (j > 0) {
+      int p = (j - 1) / 2;
+      if (!less(item, heap[p])) break;    // heap property verified
+      heap[j] = heap[p];                  // shift the parent down
+      pos[heap[j]] = j;
+      j = p;
+    }
+    heap[j] = item;
+    pos[item] = j;
+  }
+
+  /** Moves the item at position j lower, if necessary, to restore the heap property. */
+  private void downheap(int j) {
+    int item = heap[j];
+    while (2 * j + 1 < size) {
+      int child = 2 * j + 1;
+      if (child + 1 < size && less(heap[child + 1], heap[child]))
+        child++;                          // right child is smaller
+      if (!less(heap[child], item)) break;  // heap property has been restored
+      heap[j] = heap[child];              // shift the child up
+      pos[heap[j]] = j;
+      j = child;
+    }
+    heap[j] = item;
+    pos[item] = j;
+  }
+}
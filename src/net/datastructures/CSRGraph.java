@@ -0,0 +1,449 @@
+package net.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable graph stored in compressed sparse row (CSR) form.
+ *
+ * Vertices are numbered 0..n-1 and edges 0..m-1. The edges leaving vertex i occupy
+ * slots offsets[i] .. offsets[i+1]-1 of the parallel arrays targets, weights and edgeIds,
+ * so the adjacency of a vertex is a contiguous range of primitive arrays. For an undirected
+ * graph every edge appears once in the row of each of its endpoints, and the incoming rows
+ * are the same as the outgoing ones.
+ *
+ * Every edge carries an integral weight that is stored separately from its element, so that
+ * index-based algorithms (see GraphAlgorithms) never need to unbox it. Instances are created
+ * with a {@link Builder} or copied from another graph with {@link #of}; the update methods of
+ * the Graph interface throw UnsupportedOperationException.
+ */
+public class CSRGraph<V,E> implements Graph<V,E> {
+  private final boolean isDirected;
+  private final IndexedVertex<V>[] vertexList;
+  private final IndexedEdge<E>[] edgeList;
+
+  // outgoing rows (package-private so that GraphAlgorithms can scan them directly)
+  final int[] offsets;
+  final int[] targets;
+  final int[] weights;
+  final int[] edgeIds;
+
+  // incoming rows (aliases of the outgoing rows if the graph is undirected)
+  final int[] inOffsets;
+  final int[] inSources;
+  final int[] inWeights;
+  final int[] inEdgeIds;
+
+  // endpoints and weight of each edge, by edge index
+  final int[] edgeSource;
+  final int[] edgeTarget;
+  final int[] edgeWeight;
+
+  @SuppressWarnings({"unchecked"})
+  private CSRGraph(boolean directed, Object[] vElems, int n,
+                   Object[] eElems, int[] src, int[] dst, int[] wgt, int m) {
+    isDirected = directed;
+    vertexList = newVertexArray(n);
+    for (int i=0; i < n; i++)
+      vertexList[i] = new IndexedVertex<>((V) vElems[i], i);
+    edgeList = newEdgeArray(m);
+    for (int j=0; j < m; j++)
+      edgeList[j] = new IndexedEdge<>((E) eElems[j], j);
+    edgeSource = Arrays.copyOf(src, m);
+    edgeTarget = Arrays.copyOf(dst, m);
+    edgeWeight = Arrays.copyOf(wgt, m);
+
+    // count the degree of every vertex, then turn the counts into row offsets
+    offsets = new int[n + 1];
+    for (int j=0; j < m; j++) {
+      offsets[src[j] + 1]++;
+      if (!directed) offsets[dst[j] + 1]++;
+    }
+    for (int i=0; i < n; i++)
+      offsets[i + 1] += offsets[i];
+    int slots = offsets[n];
+    targets = new int[slots];
+    weights = new int[slots];
+    edgeIds = new int[slots];
+    int[] next = Arrays.copyOf(offsets, n);      // next free slot of every row
+    for (int j=0; j < m; j++) {
+      place(next, src[j], dst[j], wgt[j], j, targets, weights, edgeIds);
+      if (!directed) place(next, dst[j], src[j], wgt[j], j, targets, weights, edgeIds);
+    }
+
+    if (!directed) {
+      inOffsets = offsets;
+      inSources = targets;
+      inWeights = weights;
+      inEdgeIds = edgeIds;
+    } else {
+      inOffsets = new int[n + 1];
+      for (int j=0; j < m; j++)
+        inOffsets[dst[j] + 1]++;
+      for (int i=0; i < n; i++)
+        inOffsets[i + 1] += inOffsets[i];
+      inSources = new int[m];
+      inWeights = new int[m];
+      inEdgeIds = new int[m];
+      next = Arrays.copyOf(inOffsets, n);
+      for (int j=0; j < m; j++)
+        place(next, dst[j], src[j], wgt[j], j, inSources, inWeights, inEdgeIds);
+    }
+  }
+
+  /** Creates an array for n vertices (an array of a generic type cannot be created directly). */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private IndexedVertex<V>[] newVertexArray(int n) {
+    return (IndexedVertex<V>[]) new IndexedVertex[n];
+  }
+
+  /** Creates an array for m edges. */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private IndexedEdge<E>[] newEdgeArray(int m) {
+    return (IndexedEdge<E>[]) new IndexedEdge[m];
+  }
+
+  /** Stores the (other, weight, edge) triple in the next free slot of the given row. */
+  private static void place(int[] next, int row, int other, int wgt, int edge,
+                            int[] others, int[] wgts, int[] ids) {
+    int k = next[row]++;
+    others[k] = other;
+    wgts[k] = wgt;
+    ids[k] = edge;
+  }
+
+  /**
+   * Returns a CSR copy of graph g, using the given function to obtain the weight of each edge.
+   * Vertices are numbered in the order in which g reports them.
+   */
+  public static <V,E> CSRGraph<V,E> of(Graph<V,E> g, boolean directed, ToIntFunction<E> weight) {
+    return of(g, directed, v -> true, e -> true, weight);
+  }
+
+  /**
+   * Returns a CSR copy of the subgraph of g formed by the vertices whose element satisfies
+   * keepVertex and the edges whose element satisfies keepEdge and whose endpoints are both kept.
+   */
+  public static <V,E> CSRGraph<V,E> of(Graph<V,E> g, boolean directed, Predicate<V> keepVertex,
+                                       Predicate<E> keepEdge, ToIntFunction<E> weight) {
+    Builder<V,E> builder = new Builder<>(directed, g.numVertices(), g.numEdges());
+    Map<Vertex<V>, Integer> index = new ProbeHashMap<>();
+    for (Vertex<V> v : g.vertices())
+      if (keepVertex.test(v.getElement()))
+        index.put(v, builder.addVertex(v.getElement()));
+    for (Edge<E> e : g.edges()) {
+      E element = e.getElement();
+      if (keepEdge.test(element)) {
+        Vertex<V>[] ends = g.endVertices(e);
+        Integer u = index.get(ends[0]);
+        Integer v = index.get(ends[1]);
+        if (u != null && v != null)
+          builder.addEdge(u, v, element, weight.applyAsInt(element));
+      }
+    }
+    return builder.build();
+  }
+
+  /** Returns true if the graph is directed. */
+  public boolean isDirected() { return isDirected; }
+
+  /** Returns the number of vertices of the graph */
+  public int numVertices() { return vertexList.length; }
+
+  /** Returns the number of edges of the graph */
+  public int numEdges() { return edgeList.length; }
+
+  /** Returns the vertices of the graph as an iterable collection */
+  public Iterable<Vertex<V>> vertices() { return () -> new ArrayIterator<>(vertexList); }
+
+  /** Returns the edges of the graph as an iterable collection */
+  public Iterable<Edge<E>> edges() { return () -> new ArrayIterator<>(edgeList); }
+
+  /** Returns the vertex with index i. */
+  public Vertex<V> vertex(int i) { return vertexList[i]; }
+
+  /** Returns the edge with index j. */
+  public Edge<E> edge(int j) { return edgeList[j]; }
+
+  /**
+   * Returns the index (between 0 and numVertices()-1) of vertex v.
+   * @throws IllegalArgumentException if v is not a valid vertex
+   */
+  public int index(Vertex<V> v) throws IllegalArgumentException { return validate(v).index; }
+
+  /**
+   * Returns the index (between 0 and numEdges()-1) of edge e.
+   * @throws IllegalArgumentException if e is not a valid edge
+   */
+  public int index(Edge<E> e) throws IllegalArgumentException { return validate(e).index; }
+
+  /** Returns the weight of the edge with index j. */
+  public int weight(int j) { return edgeWeight[j]; }
+
+  /** Returns the index of the origin of the edge with index j (an arbitrary endpoint if undirected). */
+  public int source(int j) { return edgeSource[j]; }
+
+  /** Returns the index of the destination of the edge with index j (the other endpoint if undirected). */
+  public int target(int j) { return edgeTarget[j]; }
+
+  /** Returns the first slot of the outgoing row of the vertex with index i. */
+  public int rowStart(int i) { return offsets[i]; }
+
+  /** Returns one past the last slot of the outgoing row of the vertex with index i. */
+  public int rowEnd(int i) { return offsets[i + 1]; }
+
+  /** Returns the index of the vertex reached through slot k of an outgoing row. */
+  public int slotTarget(int k) { return targets[k]; }
+
+  /** Returns the index of the edge stored in slot k of an outgoing row. */
+  public int slotEdge(int k) { return edgeIds[k]; }
+
+  /** Returns the weight of the edge stored in slot k of an outgoing row. */
+  public int slotWeight(int k) { return weights[k]; }
+
+  /**
+   * Returns an array that maps every edge index to the value the given function computes
+   * for the element of that edge. Useful to run index-based algorithms with a weight other
+   * than the one stored in the graph.
+   */
+  public int[] edgeValues(ToIntFunction<E> f) {
+    int[] values = new int[edgeList.length];
+    for (int j=0; j < values.length; j++)
+      values[j] = f.applyAsInt(edgeList[j].element);
+    return values;
+  }
+
+  /** Returns an array that maps every edge index to a real value computed from its element. */
+  public double[] edgeDoubleValues(ToDoubleFunction<E> f) {
+    double[] values = new double[edgeList.length];
+    for (int j=0; j < values.length; j++)
+      values[j] = f.applyAsDouble(edgeList[j].element);
+    return values;
+  }
+
+  /**
+   * Returns the number of edges leaving vertex v.
+   * @throws IllegalArgumentException if v is not a valid vertex
+   */
+  public int outDegree(Vertex<V> v) throws IllegalArgumentException {
+    int i = validate(v).index;
+    return offsets[i + 1] - offsets[i];
+  }
+
+  /**
+   * Returns the number of edges for which vertex v is the destination.
+   * @throws IllegalArgumentException if v is not a valid vertex
+   */
+  public int inDegree(Vertex<V> v) throws IllegalArgumentException {
+    int i = validate(v).index;
+    return inOffsets[i + 1] - inOffsets[i];
+  }
+
+  /**
+   * Returns an iterable collection of edges for which vertex v is the origin.
+   * @throws IllegalArgumentException if v is not a valid vertex
+   */
+  public Iterable<Edge<E>> outgoingEdges(Vertex<V> v) throws IllegalArgumentException {
+    int i = validate(v).index;
+    return () -> new RowIterator(edgeIds, offsets[i], offsets[i + 1]);
+  }
+
+  /**
+   * Returns an iterable collection of edges for which vertex v is the destination.
+   * @throws IllegalArgumentException if v is not a valid vertex
+   */
+  public Iterable<Edge<E>> incomingEdges(Vertex<V> v) throws IllegalArgumentException {
+    int i = validate(v).index;
+    return () -> new RowIterator(inEdgeIds, inOffsets[i], inOffsets[i + 1]);
+  }
+
+  /**
+   * Returns the edge from u to v, or null if they are not adjacent.
+   * This scans the row of u, so it runs in O(outDegree(u)) time.
+   */
+  public Edge<E> getEdge(Vertex<V> u, Vertex<V> v) throws IllegalArgumentException {
+    int a = validate(u).index;
+    int b = validate(v).index;
+    for (int k=offsets[a]; k < offsets[a + 1]; k++)
+      if (targets[k] == b)
+        return edgeList[edgeIds[k]];
+    return null;
+  }
+
+  /**
+   * Returns the vertices of edge e as an array of length two.
+   * If the graph is directed, the first vertex is the origin, and
+   * the second is the destination.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Vertex<V>[] endVertices(Edge<E> e) throws IllegalArgumentException {
+    int j = validate(e).index;
+    return (Vertex<V>[]) new Vertex[]{vertexList[edgeSource[j]], vertexList[edgeTarget[j]]};
+  }
+
+  /** Returns the vertex that is opposite vertex v on edge e. */
+  public Vertex<V> opposite(Vertex<V> v, Edge<E> e) throws IllegalArgumentException {
+    int i = validate(v).index;
+    int j = validate(e).index;
+    if (edgeSource[j] == i)
+      return vertexList[edgeTarget[j]];
+    else if (edgeTarget[j] == i)
+      return vertexList[edgeSource[j]];
+    else
+      throw new IllegalArgumentException("v is not incident to this edge");
+  }
+
+  /** Unsupported: the graph is immutable. */
+  public Vertex<V> insertVertex(V element) {
+    throw new UnsupportedOperationException("CSRGraph is immutable");
+  }
+
+  /** Unsupported: the graph is immutable. */
+  public Edge<E> insertEdge(Vertex<V> u, Vertex<V> v, E element) {
+    throw new UnsupportedOperationException("CSRGraph is immutable");
+  }
+
+  /** Unsupported: the graph is immutable. */
+  public void removeVertex(Vertex<V> v) {
+    throw new UnsupportedOperationException("CSRGraph is immutable");
+  }
+
+  /** Unsupported: the graph is immutable. */
+  public void removeEdge(Edge<E> e) {
+    throw new UnsupportedOperationException("CSRGraph is immutable");
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private IndexedVertex<V> validate(Vertex<V> v) {
+    if (!(v instanceof IndexedVertex)) throw new IllegalArgumentException("Invalid vertex");
+    IndexedVertex<V> vert = (IndexedVertex<V>) v;     // safe cast
+    if (vert.owner() != this) throw new IllegalArgumentException("Invalid vertex");
+    return vert;
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private IndexedEdge<E> validate(Edge<E> e) {
+    if (!(e instanceof IndexedEdge)) throw new IllegalArgumentException("Invalid edge");
+    IndexedEdge<E> edge = (IndexedEdge<E>) e;         // safe cast
+    if (edge.owner() != this) throw new IllegalArgumentException("Invalid edge");
+    return edge;
+  }
+
+  //---------------- nested IndexedVertex class ----------------
+  /** A vertex of a CSR graph, identified by its index. */
+  private class IndexedVertex<T> implements Vertex<T> {
+    private final T element;
+    private final int index;
+    public IndexedVertex(T elem, int i) { element = elem; index = i; }
+    public T getElement() { return element; }
+    private CSRGraph<V,E> owner() { return CSRGraph.this; }
+  } //------------ end of IndexedVertex class ------------
+
+  //---------------- nested IndexedEdge class ----------------
+  /** An edge of a CSR graph, identified by its index. */
+  private class IndexedEdge<T> implements Edge<T> {
+    private final T element;
+    private final int index;
+    public IndexedEdge(T elem, int j) { element = elem; index = j; }
+    public T getElement() { return element; }
+    private CSRGraph<V,E> owner() { return CSRGraph.this; }
+  } //------------ end of IndexedEdge class ------------
+
+  //---------------- nested iterator classes ----------------
+  /** Iterates over the elements of an array. */
+  private static class ArrayIterator<T> implements Iterator<T> {
+    private final Object[] data;
+    private int j = 0;
+    public ArrayIterator(Object[] array) { data = array; }
+    public boolean hasNext() { return j < data.length; }
+    @SuppressWarnings({"unchecked"})
+    public T next() {
+      if (j == data.length) throw new NoSuchElementException("No next element");
+      return (T) data[j++];
+    }
+  }
+
+  /** Iterates over the edges stored in slots [start, end) of a row array. */
+  private class RowIterator implements Iterator<Edge<E>> {
+    private final int[] ids;
+    private int k;
+    private final int end;
+    public RowIterator(int[] ids, int start, int end) { this.ids = ids; k = start; this.end = end; }
+    public boolean hasNext() { return k < end; }
+    public Edge<E> next() {
+      if (k == end) throw new NoSuchElementException("No next element");
+      return edgeList[ids[k++]];
+    }
+  } //------------ end of nested iterator classes ------------
+
+  //---------------- nested Builder class ----------------
+  /**
+   * Accumulates vertices and edges and produces an immutable CSRGraph.
+   * Vertices receive consecutive indices in insertion order.
+   */
+  public static class Builder<V,E> {
+    private final boolean directed;
+    private Object[] vElems;
+    private int n = 0;
+    private Object[] eElems;
+    private int[] src, dst, wgt;
+    private int m = 0;
+
+    /** Creates a builder for a graph of the given kind. */
+    public Builder(boolean directed) { this(directed, 16, 16); }
+
+    /** Creates a builder with room for the expected number of vertices and edges. */
+    public Builder(boolean directed, int expectedVertices, int expectedEdges) {
+      this.directed = directed;
+      vElems = new Object[Math.max(1, expectedVertices)];
+      int cap = Math.max(1, expectedEdges);
+      eElems = new Object[cap];
+      src = new int[cap];
+      dst = new int[cap];
+      wgt = new int[cap];
+    }
+
+    /** Adds a vertex storing the given element and returns its index. */
+    public int addVertex(V element) {
+      if (n == vElems.length)
+        vElems = Arrays.copyOf(vElems, 2 * n);
+      vElems[n] = element;
+      return n++;
+    }
+
+    /**
+     * Adds an edge between the vertices with indices u and v and returns its index.
+     * @throws IllegalArgumentException if u or v are not valid vertex indices
+     */
+    public int addEdge(int u, int v, E element, int weight) throws IllegalArgumentException {
+      if (u < 0 || u >= n || v < 0 || v >= n)
+        throw new IllegalArgumentException("Invalid vertex index");
+      if (m == src.length) {
+        eElems = Arrays.copyOf(eElems, 2 * m);
+        src = Arrays.copyOf(src, 2 * m);
+        dst = Arrays.copyOf(dst, 2 * m);
+        wgt = Arrays.copyOf(wgt, 2 * m);
+      }
+      eElems[m] = element;
+      src[m] = u;
+      dst[m] = v;
+      wgt[m] = weight;
+      return m++;
+    }
+
+    /** Returns the number of vertices added so far. */
+    public int numVertices() { return n; }
+
+    /** Returns the number of edges added so far. */
+    public int numEdges() { return m; }
+
+    /** Returns a new CSRGraph with the vertices and edges added so far. */
+    public CSRGraph<V,E> build() {
+      return new CSRGraph<>(directed, vElems, n, eElems, src, dst, wgt, m);
+    }
+  } //------------ end of Builder class ------------
+}
@@ -0,0 +1,78 @@
+package net.datastructures;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free Union-Find structure for the integers 0..n-1 that may be shared by many threads.
+ *
+ * The forest of parents is stored in an AtomicIntegerArray. The find operation halves the
+ * path with compareAndSet (a failed attempt only means another thread already shortened it),
+ * and union links the root with the smaller index below the root with the larger index using
+ * compareAndSet on the slot of the root, retrying if that root stopped being one. Linking
+ * always toward the larger index keeps the forest acyclic under any interleaving.
+ */
+public class ConcurrentUnionFind {
+  private final AtomicIntegerArray parent;
+  private final AtomicInteger count;
+
+  /** Creates n singleton sets {0}, {1}, ..., {n-1}. */
+  public ConcurrentUnionFind(int n) {
+    parent = new AtomicIntegerArray(n);
+    for (int i=0; i < n; i++)
+      parent.set(i, i);             // convention for a set leader
+    count = new AtomicInteger(n);
+  }
+
+  /** Returns the number of elements. */
+  public int size() { return parent.length(); }
+
+  /** Returns the number of disjoint sets. */
+  public int count() { return count.get(); }
+
+  /** Returns the leader of the set containing element x. */
+  public int find(int x) {
+    while (true) {
+      int p = parent.get(x);
+      if (p == x) return x;
+      int gp = parent.get(p);
+      if (p != gp)
+        parent.compareAndSet(x, p, gp);   // point x to its grandparent (if nobody else did)
+      x = gp;
+    }
+  }
+
+  /**
+   * Returns true if elements a and b are in the same set.
+   * The answer is exact for the instant at which it is decided.
+   */
+  public boolean connected(int a, int b) {
+    while (true) {
+      a = find(a);
+      b = find(b);
+      if (a == b) return true;
+      if (parent.get(a) == a) return false;   // a is still a root, so the sets were distinct
+    }
+  }
+
+  /**
+   * Merges the sets containing elements a and b.
+   * @return true if this call merged two distinct sets, false if they were already the same
+   */
+  public boolean union(int a, int b) {
+    while (true) {
+      a = find(a);
+      b = find(b);
+      if (a == b) return false;
+      if (a > b) {                    // link the smaller root below the larger one
+        int t = a;
+        a = b;
+        b = t;
+      }
+      if (parent.compareAndSet(a, a, b)) {
+        count.decrementAndGet();
+        return true;
+      }                               // a was linked by another thread: retry from its new root
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package net.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A contraction hierarchy over an undirected CSRGraph, for answering many shortest-path
+ * queries on a graph that rarely changes.
+ *
+ * Preprocessing contracts the vertices one by one, in an order chosen by a lazily updated
+ * priority (edge difference plus number of contracted neighbors). Contracting v removes it
+ * from the remaining graph and, for every pair of remaining neighbors u, x, adds a shortcut
+ * u-x of weight w(u,v) + w(v,x) unless a bounded witness search finds a path from u to x that
+ * avoids v and is no longer. A shortcut remembers v and the two edges it replaces.
+ *
+ * Every shortest path then has an equally short version that first climbs and then descends
+ * in contraction order, so a query runs two Dijkstra searches (from the source and from the
+ * target) that only follow edges towards vertices contracted later, and finally unpacks the
+ * shortcuts of the best meeting point back into edges of the original graph.
+ */
+public class ContractionHierarchy<V> {
+  private static final int WITNESS_SETTLE_LIMIT = 64;   // vertices settled per witness search
+
+  private final CSRGraph<V,?> graph;
+  private final int[] rank;               // rank[v] is the contraction order of v
+
+  // edges of the hierarchy: the original edges of the graph followed by the shortcuts
+  private int[] from;
+  private int[] to;
+  private int[] weight;
+  private int[] middle;                   // contracted vertex of a shortcut, -1 if original
+  private int[] child1;                   // replaced edge incident to from[e] (-1 if original)
+  private int[] child2;                   // replaced edge incident to to[e] (-1 if original)
+  private int numEdges = 0;
+  private int numShortcuts = 0;
+
+  // upward graph: for each vertex, the edges to neighbors of higher rank
+  private final int[] upOffsets;
+  private final int[] upTargets;
+  private final int[] upWeights;
+  private final int[] upEdges;
+
+  // remaining graph, only used during preprocessing
+  private int[][] adj;                    // adj[v][0..deg[v]-1] are the edges incident to v
+  private int[] deg;
+  private boolean[] contracted;
+
+  // state of the witness searches, reused between searches
+  private int[] witnessDist;
+  private int[] touched;                  // vertices reached by the last witness search
+  private int numTouched = 0;
+  private IndexedMinHeap witnessQueue;
+
+  /**
+   * Builds the hierarchy of g, using its CSR weights.
+   * @throws IllegalArgumentException if g is directed
+   */
+  public ContractionHierarchy(CSRGraph<V,?> g) {
+    if (g.isDirected())
+      throw new IllegalArgumentException("Contraction hierarchies require an undirected graph");
+    graph = g;
+    int n = g.numVertices();
+    int m = g.numEdges();
+    rank = new int[n];
+    int capacity = Math.max(16, 2 * m);
+    from = new int[capacity];
+    to = new int[capacity];
+    weight = new int[capacity];
+    middle = new int[capacity];
+    child1 = new int[capacity];
+    child2 = new int[capacity];
+
+    adj = new int[n][];
+    deg = new int[n];
+    for (int v=0; v < n; v++)
+      adj[v] = new int[Math.max(4, g.rowEnd(v) - g.rowStart(v))];
+    for (int j=0; j < m; j++)
+      if (g.source(j) != g.target(j))
+        connect(g.source(j), g.target(j), g.weight(j), -1, -1, -1);
+
+    contract();
+
+    // upward graph in CSR form
+    upOffsets = new int[n + 1];
+    for (int e=0; e < numEdges; e++)
+      upOffsets[lower(e) + 1]++;
+    for (int v=0; v < n; v++)
+      upOffsets[v + 1] += upOffsets[v];
+    upTargets = new int[numEdges];
+    upWeights = new int[numEdges];
+    upEdges = new int[numEdges];
+    int[] next = Arrays.copyOf(upOffsets, n);
+    for (int e=0; e < numEdges; e++) {
+      int u = lower(e);
+      int k = next[u]++;
+      upTargets[k] = (u == from[e]) ? to[e] : from[e];
+      upWeights[k] = weight[e];
+      upEdges[k] = e;
+    }
+    adj = null;                           // release the preprocessing structures
+    deg = null;
+    contracted = null;
+    witnessDist = null;
+    touched = null;
+    witnessQueue = null;
+  }
+
+  /** Returns the number of shortcut edges added by the preprocessing. */
+  public int numShortcuts() { return numShortcuts; }
+
+  /** Returns the position of vertex v in the contraction order. */
+  public int rank(int v) { return rank[v]; }
+
+  /**
+   * Returns the length of a shortest path between the vertices with indices src and target
+   * (Integer.MAX_VALUE if target is unreachable).
+   */
+  public int distance(int src, int target) {
+    Query q = new Query(src, target);
+    return q.best;
+  }
+
+  /**
+   * Computes a shortest path between the vertices with indices src and target and returns
+   * its vertices in order (src and target included), with every shortcut unpacked.
+   *
+   * @throws IllegalArgumentException if target is not reachable from src
+   */
+  public PositionalList<Vertex<V>> shortestPath(int src, int target) {
+    Query q = new Query(src, target);
+    if (q.best == Integer.MAX_VALUE)
+      throw new IllegalArgumentException("No hay camino desde " + graph.vertex(src).getElement()
+                                         + " a " + graph.vertex(target).getElement());
+    PositionalList<Vertex<V>> path = new LinkedPositionalList<>();
+    path.addFirst(graph.vertex(src));
+    int[] up = new int[graph.numVertices()];            // edges from src up to the meeting point
+    int size = 0;
+    for (int walk = q.meet; walk != src; walk = q.fwdPrev[walk])
+      up[size++] = q.fwdEdge[walk];
+    int walk = src;
+    for (int k = size - 1; k >= 0; k--)
+      walk = unpack(up[k], walk, path);
+    for (; walk != target; walk = q.bwdPrev[walk])      // down from the meeting point
+      unpack(q.bwdEdge[walk], walk, path);
+    return path;
+  }
+
+  /**
+   * Appends to path the vertices of edge e (a shortcut is expanded recursively) after its
+   * endpoint start, and returns the other endpoint.
+   */
+  private int unpack(int e, int start, PositionalList<Vertex<V>> path) {
+    int[] stackEdge = new int[16];
+    int[] stackStart = new int[16];
+    int top = 0;
+    stackEdge[top] = e;
+    stackStart[top++] = start;
+    int last = start;
+    while (top > 0) {
+      int f = stackEdge[--top];
+      int a = stackStart[top];
+      if (middle[f] < 0) {                              // original edge: emit its other end
+        last = (a == from[f]) ? to[f] : from[f];
+        path.addLast(graph.vertex(last));
+      } else {
+        if (top + 2 > stackEdge.length) {
+          stackEdge = Arrays.copyOf(stackEdge, 2 * stackEdge.length);
+          stackStart = Arrays.copyOf(stackStart, 2 * stackStart.length);
+        }
+        int first = (a == from[f]) ? child1[f] : child2[f];
+        int second = (a == from[f]) ? child2[f] : child1[f];
+        stackEdge[top] = second;                        // pushed first, expanded last
+        stackStart[top++] = middle[f];
+        stackEdge[top] = first;
+        stackStart[top++] = a;
+      }
+    }
+    return last;
+  }
+
+  /** A bidirectional upward search between two vertices. */
+  private class Query {
+    final int[] fwdDist, bwdDist;
+    final int[] fwdPrev, bwdPrev;         // neighbor towards src (fwd) or target (bwd)
+    final int[] fwdEdge, bwdEdge;         // edge used to reach each vertex
+    int best = Integer.MAX_VALUE;
+    int meet = -1;
+
+    Query(int src, int target) {
+      int n = graph.numVertices();
+      fwdDist = new int[n];
+      bwdDist = new int[n];
+      fwdPrev = new int[n];
+      bwdPrev = new int[n];
+      fwdEdge = new int[n];
+      bwdEdge = new int[n];
+      Arrays.fill(fwdDist, Integer.MAX_VALUE);
+      Arrays.fill(bwdDist, Integer.MAX_VALUE);
+      IndexedMinHeap fwd = new IndexedMinHeap(n);
+      IndexedMinHeap bwd = new IndexedMinHeap(n);
+      fwdDist[src] = 0;
+      bwdDist[target] = 0;
+      fwd.insert(src, 0);
+      bwd.insert(target, 0);
+      if (src == target) {
+        best = 0;
+        meet = src;
+        return;
+      }
+      while (true) {
+        boolean f = !fwd.isEmpty() && fwd.minKey() < best;
+        boolean b = !bwd.isEmpty() && bwd.minKey() < best;
+        if (!f && !b) break;                            // neither side can improve on best
+        if (f && (!b || fwd.minKey() <= bwd.minKey()))
+          step(fwd, fwdDist, fwdPrev, fwdEdge, bwdDist);
+        else
+          step(bwd, bwdDist, bwdPrev, bwdEdge, fwdDist);
+      }
+    }
+
+    /** Settles the minimum of one side and relaxes its upward edges. */
+    private void step(IndexedMinHeap pq, int[] d, int[] prev, int[] edge, int[] other) {
+      int u = pq.removeMin();
+      meetAt(u, d, other);
+      for (int k = upOffsets[u]; k < upOffsets[u + 1]; k++) {
+        int v = upTargets[k];
+        int alt = d[u] + upWeights[k];
+        if (alt < d[v]) {                               // better path to v?
+          d[v] = alt;
+          prev[v] = u;
+          edge[v] = upEdges[k];
+          pq.insertOrDecrease(v, alt);
+          meetAt(v, d, other);
+        }
+      }
+    }
+
+    /** Records v as meeting point if the two searches reach it with a shorter total. */
+    private void meetAt(int v, int[] d, int[] other) {
+      if (other[v] != Integer.MAX_VALUE && d[v] + other[v] < best) {
+        best = d[v] + other[v];
+        meet = v;
+      }
+    }
+  }
+
+  /** Contracts every vertex, in the order given by the lazily updated priorities. */
+  private void contract() {
+    int n = graph.numVertices();
+    contracted = new boolean[n];
+    int[] deleted = new int[n];           // number of contracted neighbors of each vertex
+    witnessDist = new int[n];
+    Arrays.fill(witnessDist, Integer.MAX_VALUE);
+    touched = new int[n];
+    witnessQueue = new IndexedMinHeap(n);
+
+    IndexedMinHeap order = new IndexedMinHeap(n);
+    for (int v=0; v < n; v++)
+      order.insert(v, contractVertex(v, false));
+    int next = 0;
+    while (!order.isEmpty()) {
+      int v = order.removeMin();
+      int priority = contractVertex(v, false) + deleted[v];
+      if (!order.isEmpty() && priority > order.minKey()) {
+        order.insert(v, priority);                      // outdated priority: try again later
+        continue;
+      }
+      contractVertex(v, true);
+      contracted[v] = true;
+      rank[v] = next++;
+      for (int k=0; k < deg[v]; k++) {
+        int e = adj[v][k];
+        int u = (from[e] == v) ? to[e] : from[e];
+        if (!contracted[u])
+          deleted[u]++;
+      }
+    }
+  }
+
+  /**
+   * Finds the shortcuts needed to contract v. If add is true they are inserted, otherwise
+   * they are only counted.
+   *
+   * @return the edge difference of v (shortcuts needed minus remaining incident edges)
+   */
+  private int contractVertex(int v, boolean add) {
+    int[] nbr = new int[deg[v]];
+    int[] via = new int[deg[v]];          // edge from v to each remaining neighbor
+    int count = 0;
+    int maxWeight = 0;
+    for (int k=0; k < deg[v]; k++) {
+      int e = adj[v][k];
+      int u = (from[e] == v) ? to[e] : from[e];
+      if (!contracted[u]) {
+        nbr[count] = u;
+        via[count++] = e;
+        maxWeight = Math.max(maxWeight, weight[via[count - 1]]);
+      }
+    }
+    int shortcuts = 0;
+    for (int i=0; i < count; i++) {
+      int u = nbr[i];
+      witnessSearch(u, v, weight[via[i]] + maxWeight);
+      for (int j=i + 1; j < count; j++) {
+        int x = nbr[j];
+        int length = weight[via[i]] + weight[via[j]];
+        if (witnessDist[x] > length) {                  // no path avoiding v is as short
+          shortcuts++;
+          if (add)
+            connect(u, x, length, v, via[i], via[j]);
+        }
+      }
+      clearWitnessSearch();
+    }
+    return shortcuts - count;
+  }
+
+  /**
+   * Dijkstra from u in the remaining graph without v, stopped at distance limit or after
+   * WITNESS_SETTLE_LIMIT vertices. Leaves its distances in witnessDist.
+   */
+  private void witnessSearch(int u, int v, int limit) {
+    touched[0] = u;
+    numTouched = 1;
+    witnessDist[u] = 0;
+    witnessQueue.insert(u, 0);
+    int settled = 0;
+    while (!witnessQueue.isEmpty() && settled++ < WITNESS_SETTLE_LIMIT) {
+      int x = witnessQueue.removeMin();
+      if (witnessDist[x] > limit)
+        break;
+      for (int k=0; k < deg[x]; k++) {
+        int e = adj[x][k];
+        int y = (from[e] == x) ? to[e] : from[e];
+        if (y != v && !contracted[y]) {
+          int alt = witnessDist[x] + weight[e];
+          if (alt < witnessDist[y]) {
+            if (witnessDist[y] == Integer.MAX_VALUE)
+              touched[numTouched++] = y;
+            witnessDist[y] = alt;
+            witnessQueue.insertOrDecrease(y, alt);
+          }
+        }
+      }
+    }
+  }
+
+  /** Resets the state left by the last witness search. */
+  private void clearWitnessSearch() {
+    for (int i=0; i < numTouched; i++)
+      witnessDist[touched[i]] = Integer.MAX_VALUE;
+    numTouched = 0;
+    witnessQueue.clear();
+  }
+
+  /**
+   * Adds an edge u-x of weight w (a shortcut through mid made of edges e1 at u and e2 at x,
+   * or an original edge if mid is -1). If u and x are already joined, the existing edge is
+   * replaced only when w is smaller.
+   */
+  private void connect(int u, int x, int w, int mid, int e1, int e2) {
+    for (int k=0; k < deg[u]; k++) {
+      int e = adj[u][k];
+      if (from[e] == x || to[e] == x) {                 // u and x are already adjacent
+        if (w < weight[e]) {
+          weight[e] = w;
+          middle[e] = mid;
+          child1[e] = (from[e] == u) ? e1 : e2;
+          child2[e] = (from[e] == u) ? e2 : e1;
+        }
+        return;
+      }
+    }
+    if (numEdges == from.length) {
+      int capacity = 2 * from.length;
+      from = Arrays.copyOf(from, capacity);
+      to = Arrays.copyOf(to, capacity);
+      weight = Arrays.copyOf(weight, capacity);
+      middle = Arrays.copyOf(middle, capacity);
+      child1 = Arrays.copyOf(child1, capacity);
+      child2 = Arrays.copyOf(child2, capacity);
+    }
+    int e = numEdges++;
+    if (mid >= 0)
+      numShortcuts++;
+    from[e] = u;
+    to[e] = x;
+    weight[e] = w;
+    middle[e] = mid;
+    child1[e] = e1;
+    child2[e] = e2;
+    attach(u, e);
+    attach(x, e);
+  }
+
+  /** Appends edge e to the adjacency of v. */
+  private void attach(int v, int e) {
+    if (deg[v] == adj[v].length)
+      adj[v] = Arrays.copyOf(adj[v], 2 * adj[v].length);
+    adj[v][deg[v]++] = e;
+  }
+
+  /** Returns the endpoint of e that was contracted first. */
+  private int lower(int e) {
+    return (rank[from[e]] < rank[to[e]]) ? from[e] : to[e];
+  }
+}
@@ -22,8 +22,12 @@
  */
 package net.datastructures;
 
+import java.util.Arrays;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 /**
  * A collection of graph algorithms.
@@ -259,40 +263,136 @@ public class GraphAlgorithms {
   /**
    * Computes a minimum spanning tree of connected, weighted graph g using Kruskal's algorithm.
    *
+   * The priority queue of edges is built bottom-up in O(E) time and consumed lazily, so the
+   * edges are only ordered as far as needed: the loop stops as soon as V-1 edges are accepted.
+   * Vertices are numbered 0..n-1 beforehand, so that components are tracked with an
+   * index-based UnionFind and the main loop neither allocates memory nor recurses.
+   *
    * Result is returned as a list of edges that comprise the MST (in arbitrary order).
    */
+  @SuppressWarnings({"unchecked", "rawtypes"})
   public static <V> PositionalList<Edge<Integer>> MST(Graph<V,Integer> g) {
     // tree is where we will store result as it is computed
     PositionalList<Edge<Integer>> tree = new LinkedPositionalList<>();
-    // pq entries are edges of graph, with weights as keys
-    PriorityQueue<Integer, Edge<Integer>> pq = new HeapPriorityQueue<>();
-    // union-find forest of components of the graph
-    Partition<Vertex<V>> forest = new Partition<>();
-    // map each vertex to the forest position
-    Map<Vertex<V>,Position<Vertex<V>>> positions = new ProbeHashMap<>();
-
+    // map each vertex to a dense index
+    Map<Vertex<V>,Integer> index = new ProbeHashMap<>();
     for (Vertex<V> v : g.vertices())
-      positions.put(v, forest.makeCluster(v));
+      index.put(v, index.size());
+    // union-find forest of components of the graph
+    UnionFind forest = new UnionFind(index.size());
 
-    for (Edge<Integer> e : g.edges())
-      pq.insert(e.getElement(), e);
+    // edges (and their endpoint indices) by position; pq entries are positions keyed by weight
+    int m = g.numEdges();
+    Edge<Integer>[] edges = (Edge<Integer>[]) new Edge[m];
+    int[] first = new int[m];
+    int[] second = new int[m];
+    Integer[] keys = new Integer[m];
+    Integer[] positions = new Integer[m];
+    int j = 0;
+    for (Edge<Integer> e : g.edges()) {
+      Vertex<V>[] endpoints = g.endVertices(e);
+      edges[j] = e;
+      first[j] = index.get(endpoints[0]);
+      second[j] = index.get(endpoints[1]);
+      keys[j] = e.getElement();
+      positions[j] = j;
+      j++;
+    }
+    PriorityQueue<Integer, Integer> pq = new HeapPriorityQueue<>(keys, positions);
 
     int size = g.numVertices();
     // while tree not spanning and unprocessed edges remain...
     while (tree.size() != size - 1 && !pq.isEmpty()) {
-      Entry<Integer, Edge<Integer>> entry = pq.removeMin();
-      Edge<Integer> edge = entry.getValue();
-      Vertex<V>[] endpoints = g.endVertices(edge);
-      Position<Vertex<V>> a = forest.find(positions.get(endpoints[0]));
-      Position<Vertex<V>> b = forest.find(positions.get(endpoints[1]));
-      if (a != b) {
-        tree.addLast(edge);
-        forest.union(a,b);
-      }
+      int k = pq.removeMin().getValue();
+      if (forest.union(first[k], second[k]))   // endpoints were in different components
+        tree.addLast(edges[k]);
     }
 
     return tree;
   }
+
+  /**
+   * Computes a minimum spanning forest of g using Boruvka's algorithm, scanning the edges
+   * in parallel.
+   *
+   * Each round labels every vertex with its current component, finds in parallel the
+   * cheapest edge leaving each component (atomically keeping the minimum of the pair
+   * (weight, edge index), so that ties are broken consistently), and then merges the
+   * components along those edges, also in parallel, through a ConcurrentUnionFind. The
+   * number of components at least halves every round.
+   *
+   * Result is returned as an array with the indices of the edges of the forest.
+   */
+  public static int[] parallelMST(CSRGraph<?,?> g) {
+    int n = g.numVertices();
+    int m = g.numEdges();
+    int[] src = g.edgeSource;
+    int[] dst = g.edgeTarget;
+    int[] wgt = g.edgeWeight;
+    ConcurrentUnionFind forest = new ConcurrentUnionFind(n);  // components, shared by all threads
+    int[] comp = new int[n];                  // component label of each vertex
+    for (int v=0; v < n; v++)
+      comp[v] = v;
+    AtomicLongArray cheapest = new AtomicLongArray(n);
+    int[] tree = new int[Math.max(0, n - 1)];
+    AtomicInteger size = new AtomicInteger();
+
+    int before = n + 1;
+    while (forest.count() < before) {
+      before = forest.count();
+      for (int c=0; c < n; c++)
+        cheapest.set(c, Long.MAX_VALUE);
+      IntStream.range(0, m).parallel().forEach(j -> {
+        int a = comp[src[j]];
+        int b = comp[dst[j]];
+        if (a != b) {
+          long key = ((long) wgt[j] << 32) | j;  // order by weight, then by edge index
+          cheapest.accumulateAndGet(a, key, Math::min);
+          cheapest.accumulateAndGet(b, key, Math::min);
+        }
+      });
+      IntStream.range(0, n).parallel().forEach(c -> {
+        long key = cheapest.get(c);
+        if (key != Long.MAX_VALUE) {
+          int j = (int) key;                  // low 32 bits hold the edge index
+          if (forest.union(src[j], dst[j]))   // the edge may have been chosen by both sides
+            tree[size.getAndIncrement()] = j;
+        }
+      });
+      IntStream.range(0, n).parallel().forEach(v -> comp[v] = forest.find(v));
+    }
+    return Arrays.copyOf(tree, size.get());
+  }
+
+  /**
+   * Computes the connected components of g, treating every edge as undirected.
+   *
+   * The edges are scanned in parallel and their endpoints are merged in a
+   * ConcurrentUnionFind; the leaders are then renumbered in increasing vertex order.
+   *
+   * Result is an array with the component of each vertex, numbered 0..k-1, where
+   * k is the number of components.
+   */
+  public static int[] connectedComponents(CSRGraph<?,?> g) {
+    int n = g.numVertices();
+    int[] src = g.edgeSource;
+    int[] dst = g.edgeTarget;
+    ConcurrentUnionFind forest = new ConcurrentUnionFind(n);
+    IntStream.range(0, g.numEdges()).parallel().forEach(j -> forest.union(src[j], dst[j]));
+
+    int[] comp = new int[n];
+    IntStream.range(0, n).parallel().forEach(v -> comp[v] = forest.find(v));
+    int[] label = new int[n];                 // label of each leader, plus one (0 = unlabeled)
+    int k = 0;
+    for (int v=0; v < n; v++) {
+      int root = comp[v];
+      if (label[root] == 0)
+        label[root] = ++k;
+      comp[v] = label[root] - 1;
+    }
+    return comp;
+  }
+
   	/**
 	 * Computes shortest-path distances from src vertex to target vertex of g.
 	 *
@@ -323,6 +423,939 @@ public class GraphAlgorithms {
 	    return path;
 	}
 
+  /**
+   * Computes a shortest path from src to target in g and returns its vertices in order
+   * (src and target included).
+   *
+   * This implementation uses Dijkstra's algorithm, but a vertex only enters the priority
+   * queue once it is discovered, the edge used to reach each vertex is recorded during the
+   * relaxation step, and the search stops as soon as target is removed from the queue.
+   *
+   * The edge's element is assumed to be its integral weight.
+   *
+   * @throws IllegalArgumentException if target is not reachable from src
+   */
+  public static <V> PositionalList<Vertex<V>>
+  shortestPath(Graph<V,Integer> g, Vertex<V> src, Vertex<V> target) {
+    // d.get(v) is upper bound on distance from src to v (only for discovered vertices)
+    Map<Vertex<V>, Integer> d = new ProbeHashMap<>();
+    // map settled v to its d value
+    Map<Vertex<V>, Integer> cloud = new ProbeHashMap<>();
+    // map discovered v to the edge of its best known path
+    Map<Vertex<V>, Edge<Integer>> parent = new ProbeHashMap<>();
+    AdaptablePriorityQueue<Integer, Vertex<V>> pq = new HeapAdaptablePriorityQueue<>();
+    Map<Vertex<V>, Entry<Integer,Vertex<V>>> pqTokens = new ProbeHashMap<>();
+
+    d.put(src, 0);
+    pqTokens.put(src, pq.insert(0, src));
+    while (!pq.isEmpty()) {
+      Entry<Integer, Vertex<V>> entry = pq.removeMin();
+      int key = entry.getKey();
+      Vertex<V> u = entry.getValue();
+      cloud.put(u, key);                             // this is actual distance to u
+      pqTokens.remove(u);                            // u is no longer in pq
+      if (u == target)
+        break;                                       // no other vertex is needed
+      for (Edge<Integer> e : g.outgoingEdges(u)) {
+        Vertex<V> v = g.opposite(u,e);
+        if (cloud.get(v) == null) {
+          // perform relaxation step on edge (u,v)
+          int alt = key + e.getElement();
+          Integer dv = d.get(v);
+          if (dv == null) {                          // first time v is discovered
+            d.put(v, alt);
+            parent.put(v, e);
+            pqTokens.put(v, pq.insert(alt, v));
+          } else if (alt < dv) {                     // better path to v?
+            d.put(v, alt);
+            parent.put(v, e);
+            pq.replaceKey(pqTokens.get(v), alt);
+          }
+        }
+      }
+    }
+
+    if (cloud.get(target) == null)
+      throw new IllegalArgumentException("No hay camino desde " + src.getElement() + " a " + target.getElement());
+
+    PositionalList<Vertex<V>> path = new LinkedPositionalList<>();
+    Vertex<V> walk = target;
+    while (walk != src) {                            // we construct the path from back to front
+      path.addFirst(walk);
+      walk = g.opposite(walk, parent.get(walk));
+    }
+    path.addFirst(src);
+    return path;
+  }
+
+  /**
+   * Computes a shortest path from src to target in g and returns its vertices in order
+   * (src and target included).
+   *
+   * This implementation uses a bidirectional version of Dijkstra's algorithm: one search
+   * grows from src along outgoing edges and another from target along incoming edges,
+   * always advancing the smaller frontier. Each relaxed edge that reaches a vertex already
+   * labeled by the opposite search is a candidate meeting point, and the search stops once
+   * the two smallest keys add up to at least the best candidate found.
+   *
+   * The edge's element is assumed to be its integral weight.
+   *
+   * @throws IllegalArgumentException if target is not reachable from src
+   */
+  public static <V> PositionalList<Vertex<V>>
+  bidirectionalShortestPath(Graph<V,Integer> g, Vertex<V> src, Vertex<V> target) {
+    Frontier<V> forward = new Frontier<>(src);
+    Frontier<V> backward = new Frontier<>(target);
+    long best = (src == target) ? 0 : Long.MAX_VALUE;
+    Vertex<V> meetForward = src;            // last vertex of the path found by forward search
+    Vertex<V> meetBackward = target;        // first vertex of the path found by backward search
+
+    while (!forward.pq.isEmpty() && !backward.pq.isEmpty()) {
+      if ((long) forward.pq.min().getKey() + backward.pq.min().getKey() >= best)
+        break;                              // no shorter path can be found
+      boolean isForward = forward.pq.size() <= backward.pq.size();
+      Frontier<V> f = isForward ? forward : backward;
+      Frontier<V> other = isForward ? backward : forward;
+
+      Entry<Integer, Vertex<V>> entry = f.pq.removeMin();
+      int key = entry.getKey();
+      Vertex<V> u = entry.getValue();
+      f.cloud.put(u, key);
+      f.pqTokens.remove(u);
+      for (Edge<Integer> e : isForward ? g.outgoingEdges(u) : g.incomingEdges(u)) {
+        Vertex<V> v = g.opposite(u,e);
+        int alt = key + e.getElement();
+        if (f.cloud.get(v) == null)
+          f.relax(v, e, alt);
+        Integer dv = other.d.get(v);
+        if (dv != null && (long) alt + dv < best) {   // the two searches meet on edge (u,v)
+          best = (long) alt + dv;
+          meetForward = isForward ? u : v;
+          meetBackward = isForward ? v : u;
+        }
+      }
+    }
+
+    if (best == Long.MAX_VALUE)
+      throw new IllegalArgumentException("No hay camino desde " + src.getElement() + " a " + target.getElement());
+
+    PositionalList<Vertex<V>> path = new LinkedPositionalList<>();
+    Vertex<V> walk = meetForward;
+    while (walk != src) {                   // first half, from back to front
+      path.addFirst(walk);
+      walk = g.opposite(walk, forward.parent.get(walk));
+    }
+    path.addFirst(src);
+    if (meetBackward != meetForward) {
+      walk = meetBackward;
+      while (walk != target) {              // second half, from front to back
+        path.addLast(walk);
+        walk = g.opposite(walk, backward.parent.get(walk));
+      }
+      path.addLast(target);
+    }
+    return path;
+  }
+
+  /**
+   * Computes shortest-path distances from the vertex with index src to all vertices of g.
+   *
+   * This implementation uses Dijkstra's algorithm directly on vertex indices, with distances
+   * kept in an int array and an IndexedMinHeap as priority queue, so no objects are created
+   * per vertex or per relaxation.
+   *
+   * @return array d such that d[v] is the distance from src to the vertex with index v
+   *         (Integer.MAX_VALUE if that vertex is unreachable)
+   */
+  public static int[] shortestPathLengths(CSRGraph<?,?> g, int src) {
+    return dijkstra(g, src, -1, null);
+  }
+
+  /**
+   * Returns the length of a shortest path between the vertices with indices src and target
+   * of g (Integer.MAX_VALUE if target is unreachable). The search stops once target is settled.
+   */
+  public static int shortestPathLength(CSRGraph<?,?> g, int src, int target) {
+    return dijkstra(g, src, target, null)[target];
+  }
+
+  /**
+   * Computes the shortest-path tree rooted at the vertex with index src.
+   *
+   * On return pred[v] holds the index of the parent of v in the tree, or -1 if v is src or
+   * is unreachable. The array pred must have length at least g.numVertices().
+   *
+   * @return array d such that d[v] is the distance from src to the vertex with index v
+   *         (Integer.MAX_VALUE if that vertex is unreachable)
+   */
+  public static int[] shortestPathTree(CSRGraph<?,?> g, int src, int[] pred) {
+    return dijkstra(g, src, -1, pred);
+  }
+
+  /**
+   * Computes a shortest path between the vertices with indices src and target of g and
+   * returns its vertices in order (src and target included).
+   *
+   * This implementation uses Dijkstra's algorithm directly on vertex indices, records the
+   * predecessor of every vertex during relaxation and stops once target is settled.
+   *
+   * @throws IllegalArgumentException if target is not reachable from src
+   */
+  public static <V> PositionalList<Vertex<V>> shortestPath(CSRGraph<V,?> g, int src, int target) {
+    int[] pred = new int[g.numVertices()];
+    int[] d = dijkstra(g, src, target, pred);
+    if (d[target] == Integer.MAX_VALUE)
+      throw new IllegalArgumentException("No hay camino desde " + g.vertex(src).getElement()
+                                         + " a " + g.vertex(target).getElement());
+    return pathTo(g, src, target, pred);
+  }
+
+  /**
+   * Computes a shortest path between the vertices with indices src and target of g with the
+   * A* algorithm, using the landmark lower bounds as heuristic (ALT), and returns its vertices
+   * in order (src and target included).
+   *
+   * Vertices are removed from the priority queue by distance from src plus lower bound to
+   * target, so the search is drawn towards target instead of growing in all directions.
+   * The bounds are consistent, hence each vertex is settled at most once, as in Dijkstra's
+   * algorithm. The bound of each vertex is computed once, when it is first reached.
+   *
+   * @throws IllegalArgumentException if target is not reachable from src
+   */
+  public static <V> PositionalList<Vertex<V>> altShortestPath(CSRGraph<V,?> g, int src, int target,
+                                                             Landmarks landmarks) {
+    int n = g.numVertices();
+    int[] d = new int[n];
+    int[] h = new int[n];                            // lower bound to target (-1 if not computed)
+    int[] pred = new int[n];
+    Arrays.fill(d, Integer.MAX_VALUE);
+    Arrays.fill(h, -1);
+    Arrays.fill(pred, -1);
+    boolean[] cloud = new boolean[n];
+    IndexedMinHeap pq = new IndexedMinHeap(n);
+
+    d[src] = 0;
+    h[src] = landmarks.lowerBound(src, target);
+    pq.insert(src, h[src]);
+    while (!pq.isEmpty()) {
+      int u = pq.removeMin();
+      cloud[u] = true;                               // d[u] is the actual distance to u
+      if (u == target)
+        return pathTo(g, src, target, pred);
+      for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+        int v = g.targets[k];
+        if (!cloud[v]) {
+          int alt = d[u] + g.weights[k];
+          if (alt < d[v]) {                          // better path to v?
+            d[v] = alt;
+            pred[v] = u;
+            if (h[v] < 0)
+              h[v] = landmarks.lowerBound(v, target);
+            pq.insertOrDecrease(v, alt + h[v]);
+          }
+        }
+      }
+    }
+    throw new IllegalArgumentException("No hay camino desde " + g.vertex(src).getElement()
+                                       + " a " + g.vertex(target).getElement());
+  }
+
+  /**
+   * Computes a shortest path between the vertices with indices src and target of g that
+   * only uses edges j with capacity[j] >= minCapacity, and returns its vertices in order
+   * (src and target included). The array capacity is indexed by edge index.
+   *
+   * @throws IllegalArgumentException if no such path exists
+   */
+  public static <V> PositionalList<Vertex<V>> shortestPath(CSRGraph<V,?> g, int src, int target,
+                                                          int[] capacity, int minCapacity) {
+    int[] pred = new int[g.numVertices()];
+    int[] d = dijkstra(g, src, target, pred, capacity, minCapacity);
+    if (d[target] == Integer.MAX_VALUE)
+      throw new IllegalArgumentException("No hay camino desde " + g.vertex(src).getElement()
+                                         + " a " + g.vertex(target).getElement()
+                                         + " con capacidad " + minCapacity);
+    return pathTo(g, src, target, pred);
+  }
+
+  /**
+   * Computes the widest (maximum bottleneck) paths from the vertex with index src of g, where
+   * the width of a path is the smallest capacity[j] among its edges j.
+   *
+   * This is Dijkstra's algorithm with max and min in place of min and +: the vertex with the
+   * widest tentative path is settled next, and an edge extends a path with the minimum of
+   * both widths. If target is a valid index the search stops once it is settled. If pred is
+   * not null, pred[v] receives the predecessor of each reached v (and -1 for every other vertex).
+   *
+   * @return array w such that w[v] is the width of a widest path from src to the vertex with
+   *         index v (Integer.MAX_VALUE for src itself, -1 if v is unreachable)
+   */
+  public static int[] widestPathTree(CSRGraph<?,?> g, int src, int target, int[] capacity, int[] pred) {
+    int n = g.numVertices();
+    int[] w = new int[n];
+    Arrays.fill(w, -1);
+    if (pred != null)
+      Arrays.fill(pred, 0, n, -1);
+    boolean[] cloud = new boolean[n];
+    IndexedMinHeap pq = new IndexedMinHeap(n);       // keyed by -width, so widest comes first
+
+    w[src] = Integer.MAX_VALUE;
+    pq.insert(src, -Integer.MAX_VALUE);
+    while (!pq.isEmpty()) {
+      int u = pq.removeMin();
+      cloud[u] = true;                               // w[u] is the actual width to u
+      if (u == target)
+        break;
+      for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+        int v = g.targets[k];
+        if (!cloud[v]) {
+          int alt = Math.min(w[u], capacity[g.edgeIds[k]]);
+          if (alt > w[v]) {                          // wider path to v?
+            w[v] = alt;
+            if (pred != null) pred[v] = u;
+            pq.insertOrDecrease(v, -alt);
+          }
+        }
+      }
+    }
+    return w;
+  }
+
+  /**
+   * Computes a widest (maximum bottleneck) path between the vertices with indices src and
+   * target of g and returns its vertices in order (src and target included). Among the
+   * widest paths, one of minimum total weight is chosen: the bottleneck is found first, and
+   * then a shortest path is searched using only edges at least that wide.
+   *
+   * @throws IllegalArgumentException if target is not reachable from src
+   */
+  public static <V> PositionalList<Vertex<V>> widestPath(CSRGraph<V,?> g, int src, int target,
+                                                        int[] capacity) {
+    int width = widestPathTree(g, src, target, capacity, null)[target];
+    if (width < 0)
+      throw new IllegalArgumentException("No hay camino desde " + g.vertex(src).getElement()
+                                         + " a " + g.vertex(target).getElement());
+    return shortestPath(g, src, target, capacity, width);
+  }
+
+  /**
+   * Computes shortest paths from the vertex with index src of g using the real edge costs
+   * cost[j] (indexed by edge index) instead of the integer weights of g. Costs must be
+   * non-negative; an edge of infinite cost is never used.
+   *
+   * This is the same index-based Dijkstra's algorithm as for integer weights, with double
+   * distances and an IndexedDoubleMinHeap. If target is a valid index the search stops once
+   * it is settled. If pred is not null, pred[v] receives the predecessor of each reached v
+   * (and -1 for every other vertex).
+   *
+   * @return array d such that d[v] is the cost of a cheapest path from src to the vertex with
+   *         index v (Double.POSITIVE_INFINITY if that vertex is unreachable)
+   */
+  public static double[] shortestPathTree(CSRGraph<?,?> g, int src, int target, double[] cost, int[] pred) {
+    int n = g.numVertices();
+    double[] d = new double[n];
+    Arrays.fill(d, Double.POSITIVE_INFINITY);
+    if (pred != null)
+      Arrays.fill(pred, 0, n, -1);
+    boolean[] cloud = new boolean[n];
+    IndexedDoubleMinHeap pq = new IndexedDoubleMinHeap(n);
+
+    d[src] = 0;
+    pq.insert(src, 0);
+    while (!pq.isEmpty()) {
+      int u = pq.removeMin();
+      cloud[u] = true;                               // d[u] is the actual distance to u
+      if (u == target)
+        break;
+      for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+        int v = g.targets[k];
+        if (!cloud[v]) {
+          double alt = d[u] + cost[g.edgeIds[k]];
+          if (alt < d[v]) {                          // better path to v?
+            d[v] = alt;
+            if (pred != null) pred[v] = u;
+            pq.insertOrDecrease(v, alt);
+          }
+        }
+      }
+    }
+    return d;
+  }
+
+  /**
+   * Returns the additive costs of edges that lose a packet with the given probabilities:
+   * cost[j] = -log(1 - errorRate[j]), so that minimizing a sum of costs maximizes the
+   * product of the probabilities 1 - errorRate[j] that every edge delivers the packet.
+   */
+  public static double[] reliabilityCosts(double[] errorRate) {
+    double[] cost = new double[errorRate.length];
+    for (int j=0; j < cost.length; j++)
+      cost[j] = -Math.log1p(-Math.max(0.0, errorRate[j]));   // infinite if errorRate[j] >= 1
+    return cost;
+  }
+
+  /**
+   * Computes a most reliable path between the vertices with indices src and target of g and
+   * returns its vertices in order (src and target included). Edge j loses a packet with
+   * probability errorRate[j]; the path maximizes the probability of losing none, by running
+   * Dijkstra's algorithm with the costs of reliabilityCosts.
+   *
+   * @throws IllegalArgumentException if target cannot be reached with positive probability
+   */
+  public static <V> PositionalList<Vertex<V>> mostReliablePath(CSRGraph<V,?> g, int src, int target,
+                                                              double[] errorRate) {
+    int[] pred = new int[g.numVertices()];
+    double[] d = shortestPathTree(g, src, target, reliabilityCosts(errorRate), pred);
+    if (d[target] == Double.POSITIVE_INFINITY)
+      throw new IllegalArgumentException("No hay camino desde " + g.vertex(src).getElement()
+                                         + " a " + g.vertex(target).getElement());
+    return pathTo(g, src, target, pred);
+  }
+
+  /**
+   * Computes the Pareto set of paths between the vertices with indices src and target of g
+   * for two criteria: total weight (the integer weights of g) and total cost (cost[j] by edge
+   * index, non-negative; infinite costs are never used). A path is kept unless another one is
+   * no worse in both criteria and better in one.
+   *
+   * This is a label-setting algorithm: every partial path is a label (vertex, weight, cost),
+   * and labels are removed from a priority queue in increasing (weight, cost) order. Since a
+   * removed label has a weight no smaller than those removed before it at the same vertex, it
+   * is dominated exactly when its cost is not below the smallest cost already settled there
+   * (or at target), so dominance is checked in O(1) per label.
+   *
+   * @return array whose elements list the vertex indices of the Pareto-optimal paths
+   *         (src and target included), by increasing weight and hence decreasing cost
+   */
+  public static int[][] paretoPaths(CSRGraph<?,?> g, int src, int target, double[] cost) {
+    int n = g.numVertices();
+    double[] minCost = new double[n];             // smallest cost settled at each vertex
+    Arrays.fill(minCost, Double.POSITIVE_INFINITY);
+    Labels labels = new Labels();
+    int[] found = new int[4];
+    int numFound = 0;
+
+    labels.add(src, 0, 0.0, -1);
+    while (!labels.isEmpty()) {
+      int a = labels.removeMin();
+      int u = labels.vertex[a];
+      double c = labels.cost[a];
+      if (c >= minCost[u] || c >= minCost[target])
+        continue;                                 // dominated by a settled label
+      minCost[u] = c;
+      if (u == target) {
+        if (numFound == found.length)
+          found = Arrays.copyOf(found, 2 * numFound);
+        found[numFound++] = a;
+        continue;
+      }
+      for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+        int v = g.targets[k];
+        double alt = c + cost[g.edgeIds[k]];
+        if (alt < minCost[v] && alt < minCost[target])
+          labels.add(v, labels.weight[a] + g.weights[k], alt, a);
+      }
+    }
+
+    int[][] paths = new int[numFound][];
+    for (int i=0; i < numFound; i++) {
+      int hops = 0;
+      for (int a = found[i]; a >= 0; a = labels.pred[a])
+        hops++;
+      paths[i] = new int[hops];
+      for (int a = found[i]; a >= 0; a = labels.pred[a])     // from back to front
+        paths[i][--hops] = labels.vertex[a];
+    }
+    return paths;
+  }
+
+  /**
+   * Labels of paretoPaths, which are also the priority queue of the search: every new label
+   * enters the heap, ordered by weight and then by cost.
+   */
+  private static class Labels extends AbstractIndexedMinHeap {
+    int[] vertex = new int[16];
+    int[] weight = new int[16];
+    double[] cost = new double[16];
+    int[] pred = new int[16];             // label that this one extends, -1 for the first
+    int count = 0;
+
+    Labels() { super(16); }
+
+    /** Creates a label and inserts it in the heap. */
+    void add(int v, int w, double c, int p) {
+      if (count == vertex.length) {
+        vertex = Arrays.copyOf(vertex, 2 * count);
+        weight = Arrays.copyOf(weight, 2 * count);
+        cost = Arrays.copyOf(cost, 2 * count);
+        pred = Arrays.copyOf(pred, 2 * count);
+        ensureCapacity(2 * count);
+      }
+      vertex[count] = v;
+      weight[count] = w;
+      cost[count] = c;
+      pred[count] = p;
+      add(count++);
+    }
+
+    @Override
+    protected boolean less(int a, int b) {
+      return weight[a] < weight[b] || weight[a] == weight[b] && cost[a] < cost[b];
+    }
+  }
+
+  /**
+   * Computes a maximum flow from the vertex with index src to the vertex with index sink of g,
+   * where edge j has capacity capacity[j] (in both directions if g is undirected), using
+   * Dinic's algorithm.
+   *
+   * The residual graph is kept in primitive arrays: edge j becomes arcs 2j (source to target)
+   * and 2j+1 (target to source), each being the reverse of the other, grouped by tail in CSR
+   * form. Each phase labels the vertices with their BFS level from src in the residual graph
+   * and then saturates the level graph with augmenting paths found by an iterative DFS that
+   * never re-examines an arc already found useless in that phase (current-arc pointers).
+   * The number of phases is at most n, and each takes O(n m) time.
+   *
+   * If sourceSide is not null, on return sourceSide[v] is true exactly for the vertices still
+   * reachable from src in the residual graph: the source side of a minimum cut.
+   *
+   * @return the value of a maximum flow
+   * @throws IllegalArgumentException if src and sink are the same vertex
+   */
+  public static long maxFlow(CSRGraph<?,?> g, int src, int sink, int[] capacity, boolean[] sourceSide) {
+    if (src == sink)
+      throw new IllegalArgumentException("Source and sink must be different");
+    int n = g.numVertices();
+    int m = g.numEdges();
+    int[] first = new int[n + 1];                  // arcs of v are order[first[v]..first[v+1]-1]
+    for (int j=0; j < m; j++) {
+      first[g.edgeSource[j] + 1]++;
+      first[g.edgeTarget[j] + 1]++;
+    }
+    for (int v=0; v < n; v++)
+      first[v + 1] += first[v];
+    int[] order = new int[2 * m];
+    int[] next = Arrays.copyOf(first, n);
+    for (int j=0; j < m; j++) {
+      order[next[g.edgeSource[j]]++] = 2 * j;
+      order[next[g.edgeTarget[j]]++] = 2 * j + 1;
+    }
+    int[] head = new int[2 * m];                   // head of arc a; its reverse is a ^ 1
+    long[] residual = new long[2 * m];
+    for (int j=0; j < m; j++) {
+      head[2 * j] = g.edgeTarget[j];
+      head[2 * j + 1] = g.edgeSource[j];
+      residual[2 * j] = capacity[j];
+      residual[2 * j + 1] = g.isDirected() ? 0 : capacity[j];
+    }
+
+    int[] level = new int[n];
+    int[] queue = new int[n];
+    int[] current = new int[n];                    // current-arc pointer of each vertex
+    int[] path = new int[n];                       // arcs of the augmenting path being built
+    long flow = 0;
+    while (true) {
+      levels(src, first, order, head, residual, level, queue);
+      if (level[sink] < 0)
+        break;                                     // no augmenting path is left
+      System.arraycopy(first, 0, current, 0, n);
+      int depth = 0;
+      int u = src;
+      while (true) {
+        if (u == sink) {                           // augment along path[0..depth-1]
+          long push = Long.MAX_VALUE;
+          for (int i=0; i < depth; i++)
+            push = Math.min(push, residual[path[i]]);
+          int retreat = depth;
+          for (int i=depth - 1; i >= 0; i--) {
+            residual[path[i]] -= push;
+            residual[path[i] ^ 1] += push;
+            if (residual[path[i]] == 0)
+              retreat = i;                         // first saturated arc of the path
+          }
+          flow += push;
+          depth = retreat;
+          u = (depth == 0) ? src : head[path[depth - 1]];
+          continue;
+        }
+        int k = current[u];
+        while (k < first[u + 1]) {
+          int a = order[k];
+          if (residual[a] > 0 && level[head[a]] == level[u] + 1)
+            break;
+          k++;
+        }
+        current[u] = k;
+        if (k < first[u + 1]) {                    // advance
+          path[depth++] = order[k];
+          u = head[order[k]];
+        } else {                                   // dead end: retreat
+          level[u] = -1;
+          if (depth == 0)
+            break;
+          depth--;
+          u = (depth == 0) ? src : head[path[depth - 1]];
+          current[u]++;
+        }
+      }
+    }
+
+    if (sourceSide != null) {
+      levels(src, first, order, head, residual, level, queue);
+      for (int v=0; v < n; v++)
+        sourceSide[v] = level[v] >= 0;
+    }
+    return flow;
+  }
+
+  /**
+   * Labels every vertex with its BFS distance from src through arcs of positive residual
+   * capacity (-1 if unreachable). Used by maxFlow.
+   */
+  private static void levels(int src, int[] first, int[] order, int[] head, long[] residual,
+                                int[] level, int[] queue) {
+    Arrays.fill(level, -1);
+    int front = 0;
+    int back = 0;
+    level[src] = 0;
+    queue[back++] = src;
+    while (front < back) {
+      int u = queue[front++];
+      for (int k = first[u]; k < first[u + 1]; k++) {
+        int a = order[k];
+        if (residual[a] > 0 && level[head[a]] < 0) {
+          level[head[a]] = level[u] + 1;
+          queue[back++] = head[a];
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the indices of the edges of g that leave the given side of a cut (for an
+   * undirected g, the edges with exactly one endpoint in it).
+   */
+  public static int[] cutEdges(CSRGraph<?,?> g, boolean[] side) {
+    int m = g.numEdges();
+    int[] cut = new int[m];
+    int size = 0;
+    for (int j=0; j < m; j++) {
+      boolean s = side[g.edgeSource[j]];
+      boolean t = side[g.edgeTarget[j]];
+      if (s && !t || !g.isDirected() && t && !s)
+        cut[size++] = j;
+    }
+    return Arrays.copyOf(cut, size);
+  }
+
+  /**
+   * Computes the k shortest loopless paths from the vertex with index src to the vertex with
+   * index target of g, in order of increasing length (Yen's algorithm).
+   *
+   * Every accepted path is used to generate candidates: for each of its vertices (the spur
+   * vertex) the prefix up to it is kept, the prefix vertices and the next edge of every
+   * accepted path with the same prefix are banned, and a shortest spur path to target is
+   * searched. Following Lawler, only spur vertices from the point where the path deviated
+   * from its parent onwards are tried, since earlier ones produce the same candidates again.
+   *
+   * The spur searches share one reverse shortest-path computation from target: its exact
+   * distances are a consistent lower bound under any set of bans, so every spur search is an
+   * A* search that walks almost straight to target unless a ban forces a detour. The search
+   * arrays are reused and only the entries touched by the previous search are reset.
+   * The arrays of accepted paths grow with the paths actually found, so a large k costs
+   * nothing when few paths exist.
+   *
+   * @return array whose i-th element lists the vertex indices of the i-th shortest path
+   *         (src and target included); it has fewer than k elements if fewer paths exist
+   */
+  public static int[][] kShortestPaths(CSRGraph<?,?> g, int src, int target, int k) {
+    SpurSearch search = new SpurSearch(g, target);
+    if (k <= 0 || search.run(src) == Integer.MAX_VALUE)
+      return new int[0][];
+    YenPath[] accepted = new YenPath[Math.min(k, 16)];
+    accepted[0] = search.splice(null, 0, 0, src);
+    int count = 1;
+    HeapPriorityQueue<Integer, YenPath> candidates = new HeapPriorityQueue<>();
+    Set<YenPath> seen = new HashSet<>();
+    seen.add(accepted[0]);
+    int[] sharing = new int[accepted.length];   // accepted paths with the same prefix as prev
+
+    while (count < k) {
+      YenPath prev = accepted[count - 1];
+      int numSharing = 0;
+      for (int i=0; i < count; i++)
+        sharing[numSharing++] = i;
+      int rootLength = 0;
+      for (int j=0; j < prev.vertices.length - 1; j++) {
+        int spur = prev.vertices[j];
+        int kept = 0;                     // keep the paths whose j-th vertex is also spur
+        for (int i=0; i < numSharing; i++) {
+          YenPath p = accepted[sharing[i]];
+          if (p.vertices.length > j + 1 && p.vertices[j] == spur)
+            sharing[kept++] = sharing[i];
+        }
+        numSharing = kept;
+        if (j >= prev.deviation) {
+          for (int i=0; i < numSharing; i++)
+            search.bannedEdge[accepted[sharing[i]].edges[j]] = true;
+          if (search.run(spur) != Integer.MAX_VALUE) {
+            YenPath candidate = search.splice(prev, j, rootLength, spur);
+            if (seen.add(candidate))
+              candidates.insert(candidate.length, candidate);
+          }
+          for (int i=0; i < numSharing; i++)
+            search.bannedEdge[accepted[sharing[i]].edges[j]] = false;
+        }
+        search.bannedVertex[spur] = true;               // the root may not be revisited
+        rootLength += g.edgeWeight[prev.edges[j]];
+      }
+      for (int v : prev.vertices)
+        search.bannedVertex[v] = false;
+      if (candidates.isEmpty())
+        break;
+      if (count == accepted.length) {
+        int capacity = (int) Math.min(k, 2L * count);
+        accepted = Arrays.copyOf(accepted, capacity);
+        sharing = Arrays.copyOf(sharing, capacity);
+      }
+      accepted[count++] = candidates.removeMin().getValue();
+    }
+
+    int[][] paths = new int[count][];
+    for (int i=0; i < count; i++)
+      paths[i] = accepted[i].vertices;
+    return paths;
+  }
+
+  /** A path found by kShortestPaths, with the index at which it deviated from its parent. */
+  private static class YenPath {
+    final int[] vertices;
+    final int[] edges;                    // edges[i] joins vertices[i] and vertices[i+1]
+    final int length;
+    final int deviation;
+
+    YenPath(int[] vertices, int[] edges, int length, int deviation) {
+      this.vertices = vertices;
+      this.edges = edges;
+      this.length = length;
+      this.deviation = deviation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof YenPath && Arrays.equals(vertices, ((YenPath) o).vertices);
+    }
+
+    @Override
+    public int hashCode() { return Arrays.hashCode(vertices); }
+  }
+
+  /**
+   * A* searches towards a fixed target that avoid banned vertices and edges (used by
+   * kShortestPaths). The heuristic is the exact distance to target in the whole graph.
+   */
+  private static class SpurSearch {
+    final CSRGraph<?,?> g;
+    final int target;
+    final int[] h;                        // distance from each vertex to target
+    final boolean[] bannedVertex;
+    final boolean[] bannedEdge;
+    final int[] d;
+    final int[] pred;
+    final int[] predEdge;
+    final boolean[] cloud;
+    final int[] touched;                  // vertices reached by the last search
+    int numTouched = 0;
+    final IndexedMinHeap pq;
+
+    SpurSearch(CSRGraph<?,?> g, int target) {
+      int n = g.numVertices();
+      this.g = g;
+      this.target = target;
+      h = g.isDirected() ? reverseDijkstra(g, target) : dijkstra(g, target, -1, null);
+      bannedVertex = new boolean[n];
+      bannedEdge = new boolean[g.numEdges()];
+      d = new int[n];
+      Arrays.fill(d, Integer.MAX_VALUE);
+      pred = new int[n];
+      predEdge = new int[n];
+      cloud = new boolean[n];
+      touched = new int[n];
+      pq = new IndexedMinHeap(n);
+    }
+
+    /** Returns the length of a shortest path from s to target avoiding the banned elements. */
+    int run(int s) {
+      for (int i=0; i < numTouched; i++) {
+        d[touched[i]] = Integer.MAX_VALUE;
+        cloud[touched[i]] = false;
+      }
+      numTouched = 0;
+      pq.clear();
+      if (h[s] == Integer.MAX_VALUE)
+        return Integer.MAX_VALUE;                    // target is not reachable at all
+      d[s] = 0;
+      touched[numTouched++] = s;
+      pq.insert(s, h[s]);
+      while (!pq.isEmpty()) {
+        int u = pq.removeMin();
+        if (u == target)
+          return d[u];
+        cloud[u] = true;
+        for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+          int v = g.targets[k];
+          int e = g.edgeIds[k];
+          if (cloud[v] || bannedVertex[v] || bannedEdge[e] || h[v] == Integer.MAX_VALUE)
+            continue;
+          int alt = d[u] + g.weights[k];
+          if (alt < d[v]) {                          // better path to v?
+            if (d[v] == Integer.MAX_VALUE)
+              touched[numTouched++] = v;
+            d[v] = alt;
+            pred[v] = u;
+            predEdge[v] = e;
+            pq.insertOrDecrease(v, alt + h[v]);
+          }
+        }
+      }
+      return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the path made of the first j edges of prev (of total weight rootLength) followed
+     * by the path found by the last run from spur (prev is null for the first path).
+     */
+    YenPath splice(YenPath prev, int j, int rootLength, int spur) {
+      int hops = 0;
+      for (int walk = target; walk != spur; walk = pred[walk])
+        hops++;
+      int[] vertices = new int[j + hops + 1];
+      int[] edges = new int[j + hops];
+      if (prev != null) {
+        System.arraycopy(prev.vertices, 0, vertices, 0, j);
+        System.arraycopy(prev.edges, 0, edges, 0, j);
+      }
+      int pos = j + hops;
+      for (int walk = target; walk != spur; walk = pred[walk]) {   // from back to front
+        vertices[pos] = walk;
+        edges[--pos] = predEdge[walk];
+      }
+      vertices[j] = spur;
+      return new YenPath(vertices, edges, rootLength + d[target], j);
+    }
+  }
+
+  /**
+   * Dijkstra's algorithm from target over the incoming rows of a directed g.
+   * @return array d such that d[v] is the distance from v to target
+   */
+  private static int[] reverseDijkstra(CSRGraph<?,?> g, int target) {
+    int n = g.numVertices();
+    int[] d = new int[n];
+    Arrays.fill(d, Integer.MAX_VALUE);
+    boolean[] cloud = new boolean[n];
+    IndexedMinHeap pq = new IndexedMinHeap(n);
+    d[target] = 0;
+    pq.insert(target, 0);
+    while (!pq.isEmpty()) {
+      int u = pq.removeMin();
+      cloud[u] = true;
+      for (int k = g.inOffsets[u]; k < g.inOffsets[u + 1]; k++) {
+        int v = g.inSources[k];
+        if (!cloud[v] && d[u] + g.inWeights[k] < d[v]) {
+          d[v] = d[u] + g.inWeights[k];
+          pq.insertOrDecrease(v, d[v]);
+        }
+      }
+    }
+    return d;
+  }
+
+  /**
+   * Returns the vertices of the path from src to target encoded in the predecessor array pred
+   * (pred[v] is the index of the vertex preceding v on the path).
+   */
+  public static <V> PositionalList<Vertex<V>> pathTo(CSRGraph<V,?> g, int src, int target, int[] pred) {
+    PositionalList<Vertex<V>> path = new LinkedPositionalList<>();
+    for (int walk = target; walk != src; walk = pred[walk])   // from back to front
+      path.addFirst(g.vertex(walk));
+    path.addFirst(g.vertex(src));
+    return path;
+  }
+
+  /**
+   * Dijkstra's algorithm on vertex indices. If target is a valid index the search stops once
+   * it is settled. If pred is not null, pred[v] receives the predecessor of each reached v
+   * (and -1 for every other vertex).
+   */
+  private static int[] dijkstra(CSRGraph<?,?> g, int src, int target, int[] pred) {
+    return dijkstra(g, src, target, pred, null, 0);
+  }
+
+  /**
+   * Dijkstra's algorithm on vertex indices that only uses the edges j with
+   * capacity[j] >= minCapacity (every edge if capacity is null).
+   */
+  private static int[] dijkstra(CSRGraph<?,?> g, int src, int target, int[] pred,
+                                int[] capacity, int minCapacity) {
+    int n = g.numVertices();
+    int[] d = new int[n];
+    Arrays.fill(d, Integer.MAX_VALUE);
+    if (pred != null)
+      Arrays.fill(pred, 0, n, -1);
+    boolean[] cloud = new boolean[n];
+    IndexedMinHeap pq = new IndexedMinHeap(n);
+
+    d[src] = 0;
+    pq.insert(src, 0);
+    while (!pq.isEmpty()) {
+      int u = pq.removeMin();
+      cloud[u] = true;                               // d[u] is the actual distance to u
+      if (u == target)
+        break;
+      for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+        int v = g.targets[k];
+        if (!cloud[v] && (capacity == null || capacity[g.edgeIds[k]] >= minCapacity)) {
+          int alt = d[u] + g.weights[k];
+          if (alt < d[v]) {                          // better path to v?
+            d[v] = alt;
+            if (pred != null) pred[v] = u;
+            pq.insertOrDecrease(v, alt);
+          }
+        }
+      }
+    }
+    return d;
+  }
+
+  /** State of one direction of a Dijkstra search (used by bidirectionalShortestPath). */
+  private static class Frontier<V> {
+    Map<Vertex<V>, Integer> d = new ProbeHashMap<>();
+    Map<Vertex<V>, Integer> cloud = new ProbeHashMap<>();
+    Map<Vertex<V>, Edge<Integer>> parent = new ProbeHashMap<>();
+    AdaptablePriorityQueue<Integer, Vertex<V>> pq = new HeapAdaptablePriorityQueue<>();
+    Map<Vertex<V>, Entry<Integer,Vertex<V>>> pqTokens = new ProbeHashMap<>();
+
+    Frontier(Vertex<V> root) {
+      d.put(root, 0);
+      pqTokens.put(root, pq.insert(0, root));
+    }
+
+    /** Lowers the label of v to alt (reached through edge e) if that is an improvement. */
+    void relax(Vertex<V> v, Edge<Integer> e, int alt) {
+      Integer dv = d.get(v);
+      if (dv == null) {                     // first time v is discovered
+        d.put(v, alt);
+        parent.put(v, e);
+        pqTokens.put(v, pq.insert(alt, v));
+      } else if (alt < dv) {                // better path to v?
+        d.put(v, alt);
+        parent.put(v, e);
+        pq.replaceKey(pqTokens.get(v), alt);
+      }
+    }
+  }
+
 
 	
 }
@@ -0,0 +1,54 @@
+package net.datastructures;
+
+/**
+ * A binary min-heap of the integers 0..n-1 (typically vertex indices) keyed by double values,
+ * such as path costs that are sums of logarithms, which are kept in a double array indexed
+ * by item.
+ */
+public class IndexedDoubleMinHeap extends AbstractIndexedMinHeap {
+  private final double[] keys;    // keys[i] is the key of item i
+
+  /** Creates an empty heap able to hold the items 0..capacity-1. */
+  public IndexedDoubleMinHeap(int capacity) {
+    super(capacity);
+    keys = new double[capacity];
+  }
+
+  /** Returns the key of item i (meaningful only while i is in the heap). */
+  public double key(int i) { return keys[i]; }
+
+  /** Returns the minimal key of the heap. */
+  public double minKey() { return keys[min()]; }
+
+  /**
+   * Inserts item i with the given key.
+   * @throws IllegalArgumentException if i is already in the heap
+   */
+  public void insert(int i, double key) throws IllegalArgumentException {
+    if (contains(i)) throw new IllegalArgumentException("Item already in heap");
+    keys[i] = key;
+    add(i);
+  }
+
+  /**
+   * Lowers the key of item i, which must be in the heap.
+   * @throws IllegalArgumentException if i is not in the heap or key is larger than its current key
+   */
+  public void decreaseKey(int i, double key) throws IllegalArgumentException {
+    if (!contains(i)) throw new IllegalArgumentException("Item not in heap");
+    if (key > keys[i]) throw new IllegalArgumentException("Key can only decrease");
+    keys[i] = key;
+    keyDecreased(i);
+  }
+
+  /** Inserts item i with the given key, or lowers its key if i is already in the heap. */
+  public void insertOrDecrease(int i, double key) {
+    if (!contains(i))
+      insert(i, key);
+    else if (key < keys[i])
+      decreaseKey(i, key);
+  }
+
+  @Override
+  protected boolean less(int a, int b) { return keys[a] < keys[b]; }
+}
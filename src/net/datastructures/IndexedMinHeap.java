@@ -0,0 +1,53 @@
+package net.datastructures;
+
+/**
+ * A binary min-heap of the integers 0..n-1 (typically vertex indices) keyed by int values,
+ * which are kept in an int array indexed by item.
+ */
+public class IndexedMinHeap extends AbstractIndexedMinHeap {
+  private final int[] keys;       // keys[i] is the key of item i
+
+  /** Creates an empty heap able to hold the items 0..capacity-1. */
+  public IndexedMinHeap(int capacity) {
+    super(capacity);
+    keys = new int[capacity];
+  }
+
+  /** Returns the key of item i (meaningful only while i is in the heap). */
+  public int key(int i) { return keys[i]; }
+
+  /** Returns the minimal key of the heap. */
+  public int minKey() { return keys[min()]; }
+
+  /**
+   * Inserts item i with the given key.
+   * @throws IllegalArgumentException if i is already in the heap
+   */
+  public void insert(int i, int key) throws IllegalArgumentException {
+    if (contains(i)) throw new IllegalArgumentException("Item already in heap");
+    keys[i] = key;
+    add(i);
+  }
+
+  /**
+   * Lowers the key of item i, which must be in the heap.
+   * @throws IllegalArgumentException if i is not in the heap or key is larger than its current key
+   */
+  public void decreaseKey(int i, int key) throws IllegalArgumentException {
+    if (!contains(i)) throw new IllegalArgumentException("Item not in heap");
+    if (key > keys[i]) throw new IllegalArgumentException("Key can only decrease");
+    keys[i] = key;
+    keyDecreased(i);
+  }
+
+  /** Inserts item i with the given key, or lowers its key if i is already in the heap. */
+  public void insertOrDecrease(int i, int key) {
+    if (!contains(i))
+      insert(i, key);
+    else if (key < keys[i])
+      decreaseKey(i, key);
+  }
+
+  @Override
+  protected boolean less(int a, int b) { return keys[a] < keys[b]; }
+}
@@ -0,0 +1,111 @@
+package net.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Distance tables from a few landmark vertices of a CSRGraph, used as lower bounds by the
+ * ALT variant of A* search (A*, Landmarks, Triangle inequality).
+ *
+ * For a landmark L and vertices v, t, the triangle inequality gives
+ * d(v,t) >= d(L,t) - d(L,v), and in an undirected graph also d(v,t) >= d(L,v) - d(L,t).
+ * The bound of a pair is the largest of these values over all landmarks. It never
+ * overestimates and is consistent, so A* may close a vertex as soon as it is removed.
+ *
+ * The bounds stay valid if weights only grow or edges and vertices are removed after the
+ * tables were computed, since no distance can shrink; reindex moves the tables to the
+ * vertex numbering of such a reduced graph without recomputing them.
+ */
+public class Landmarks {
+  private final boolean directed;
+  private final int[] landmarks;      // vertex index of each landmark (-1 if it was removed)
+  private final int[][] dist;         // dist[i][v] is the distance from landmark i to v
+
+  private Landmarks(boolean directed, int[] landmarks, int[][] dist) {
+    this.directed = directed;
+    this.landmarks = landmarks;
+    this.dist = dist;
+  }
+
+  /**
+   * Chooses at most k landmarks of g by farthest selection and computes their distance tables.
+   *
+   * The first landmark is the vertex farthest from vertex 0, and every next one is the vertex
+   * farthest from all landmarks chosen so far (a vertex no landmark reaches counts as
+   * infinitely far, so every component gets a landmark before any gets a second one).
+   * This needs k runs of Dijkstra's algorithm, that is O(k (n + m) log n) time.
+   */
+  public static Landmarks select(CSRGraph<?,?> g, int k) {
+    int n = g.numVertices();
+    k = Math.min(k, n);
+    int[] landmarks = new int[k];
+    int[][] dist = new int[k][];
+    int[] closest = new int[n];       // distance from the nearest landmark chosen so far
+    Arrays.fill(closest, Integer.MAX_VALUE);
+
+    int next = (n == 0) ? -1 : farthest(GraphAlgorithms.shortestPathLengths(g, 0));
+    int count = 0;
+    while (count < k && closest[next] > 0) {        // stop early if every vertex is a landmark
+      landmarks[count] = next;
+      dist[count] = GraphAlgorithms.shortestPathLengths(g, next);
+      for (int v=0; v < n; v++)
+        closest[v] = Math.min(closest[v], dist[count][v]);
+      count++;
+      next = farthest(closest);
+    }
+    return new Landmarks(g.isDirected(), Arrays.copyOf(landmarks, count), Arrays.copyOf(dist, count));
+  }
+
+  /** Returns the index of the largest value of d (the first one on ties). */
+  private static int farthest(int[] d) {
+    int best = 0;
+    for (int v=1; v < d.length; v++)
+      if (d[v] > d[best])
+        best = v;
+    return best;
+  }
+
+  /** Returns the number of landmarks. */
+  public int size() { return landmarks.length; }
+
+  /** Returns the vertex index of landmark i, or -1 if it is not in the current numbering. */
+  public int landmark(int i) { return landmarks[i]; }
+
+  /** Returns the distance from landmark i to vertex v (Integer.MAX_VALUE if unreachable). */
+  public int distance(int i, int v) { return dist[i][v]; }
+
+  /** Returns a lower bound on the distance from vertex v to vertex t. */
+  public int lowerBound(int v, int t) {
+    int bound = 0;
+    for (int[] d : dist) {
+      int dv = d[v];
+      int dt = d[t];
+      if (dv == Integer.MAX_VALUE || dt == Integer.MAX_VALUE)
+        continue;                     // this landmark says nothing about the pair
+      int b = directed ? dt - dv : Math.abs(dt - dv);
+      if (b > bound)
+        bound = b;
+    }
+    return bound;
+  }
+
+  /**
+   * Returns these tables renumbered for a graph in which vertex j was vertex oldIndex[j]
+   * of the original graph (or is new, if oldIndex[j] is -1; such vertices get no bound).
+   * The new graph must not have shorter distances than the original one.
+   */
+  public Landmarks reindex(int[] oldIndex) {
+    int n = oldIndex.length;
+    int[] newLandmarks = new int[landmarks.length];
+    Arrays.fill(newLandmarks, -1);
+    int[][] newDist = new int[dist.length][n];
+    for (int j=0; j < n; j++) {
+      int old = oldIndex[j];
+      for (int i=0; i < dist.length; i++) {
+        newDist[i][j] = (old < 0) ? Integer.MAX_VALUE : dist[i][old];
+        if (old >= 0 && landmarks[i] == old)
+          newLandmarks[i] = j;
+      }
+    }
+    return new Landmarks(directed, newLandmarks, newDist);
+  }
+}
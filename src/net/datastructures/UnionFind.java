@@ -0,0 +1,62 @@
+package net.datastructures;
+
+/**
+ * A Union-Find structure for maintaining disjoint sets of the integers 0..n-1.
+ *
+ * Unlike Partition, no object is created per element: the forest is stored in an int array
+ * of parents and a byte array of ranks. The find operation is iterative and uses path
+ * halving, and union links the root of smaller rank below the other one, so no call
+ * recurses and no operation allocates memory.
+ */
+public class UnionFind {
+  private final int[] parent;     // parent[i] is the parent of i (i itself for a root)
+  private final byte[] rank;      // upper bound on the height of each root's tree
+  private int count;              // number of disjoint sets
+
+  /** Creates n singleton sets {0}, {1}, ..., {n-1}. */
+  public UnionFind(int n) {
+    parent = new int[n];
+    rank = new byte[n];
+    for (int i=0; i < n; i++)
+      parent[i] = i;                // convention for a set leader
+    count = n;
+  }
+
+  /** Returns the number of elements. */
+  public int size() { return parent.length; }
+
+  /** Returns the number of disjoint sets. */
+  public int count() { return count; }
+
+  /** Returns the leader of the set containing element x. */
+  public int find(int x) {
+    while (parent[x] != x) {
+      parent[x] = parent[parent[x]];  // point x to its grandparent
+      x = parent[x];
+    }
+    return x;
+  }
+
+  /** Returns true if elements a and b are in the same set. */
+  public boolean connected(int a, int b) { return find(a) == find(b); }
+
+  /**
+   * Merges the sets containing elements a and b.
+   * @return true if the sets were distinct (and have been merged), false otherwise
+   */
+  public boolean union(int a, int b) {
+    int ra = find(a);
+    int rb = find(b);
+    if (ra == rb) return false;
+    if (rank[ra] < rank[rb]) {
+      parent[ra] = rb;
+    } else if (rank[ra] > rank[rb]) {
+      parent[rb] = ra;
+    } else {
+      parent[rb] = ra;
+      rank[ra]++;
+    }
+    count--;
+    return true;
+  }
+}
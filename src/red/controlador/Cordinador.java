@@ -7,13 +7,14 @@ import red.datos.Dato;
 import red.interfaz.Interfaz;
 import red.logica.Logica;
 import red.logica.Red;
-import red.modelo.Conexion;
+import red.logica.Ruta;
 import red.modelo.Equipo;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Clase que representa el coordinador principal del sistema de red.
@@ -22,33 +23,22 @@ import java.util.TreeMap;
 public class Cordinador {
     private Logica red = null;
     private TreeMap<String, Equipo> equipos;
-    private List<Conexion> conexiones;
     private Red datosRed;
 
     public void inicio()
     {
         inicioDatos();
 
-        inicioLogica(equipos, conexiones);
-
         inicioRed();
 
         inicioUI();
     }
 
-    private void inicioLogica(TreeMap<String, Equipo> equipos, List<Conexion> conexiones)
-    {
-        try {
-            red = new Logica(equipos, conexiones);
-            System.out.println("-----------Grafo cargado exitosamente.-----------");
-        } catch (Exception e) {
-            System.err.println("Error al cargar el grafo: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     /**
-     * Inicia la carga de datos del coordinador
+     * Inicia la carga de datos del coordinador y arma el grafo: los routers y las computadoras
+     * se leen a la vez en un índice por IP; con él listo, el mapa ordenado y los vértices del
+     * grafo se arman en otro hilo mientras se empiezan a leer las conexiones, que pasan de a una
+     * al grafo sin armar antes la lista completa
      */
     private void inicioDatos()
     {
@@ -59,20 +49,34 @@ public class Cordinador {
             System.exit(-1);
         }
 
-
-
         try {
-            equipos = Dato.cargarEquipos(CargarParametros.getArchivoComputadoras(),CargarParametros.getArchivoRouters());
-            conexiones = Dato.cargarConexiones(CargarParametros.getArchivoConexiones(), equipos);
-        } catch (FileNotFoundException e) {
+            Map<String, Equipo> indice = Dato.cargarIndiceEquipos(CargarParametros.getArchivoComputadoras(),CargarParametros.getArchivoRouters());
+            CompletableFuture<TreeMap<String, Equipo>> ordenados = CompletableFuture.supplyAsync(() -> new TreeMap<>(indice));
+            CompletableFuture<Logica> grafo = ordenados.thenApply(Logica::new);
+
+            Dato.cargarConexiones(CargarParametros.getArchivoConexiones(), indice, con -> grafo.join().agregarConexion(con));
+            equipos = ordenados.join();
+            inicioLogica(grafo);
+        } catch (IOException e) {
             System.err.print("Error al cargar archivos de datos");
             System.exit(-1);
         }
     }
 
+    private void inicioLogica(CompletableFuture<Logica> grafo)
+    {
+        try {
+            red = grafo.join();
+            System.out.println("-----------Grafo cargado exitosamente.-----------");
+        } catch (Exception e) {
+            System.err.println("Error al cargar el grafo: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     private void inicioRed()
     {
-        datosRed = new Red(equipos, conexiones);
+        datosRed = new Red(equipos, red.getConexiones());
     }
 
     /**
@@ -85,18 +89,22 @@ public class Cordinador {
         while (on) {
             int opcion = Interfaz.opcion();
             switch (opcion) {
-                case 3:
+                case 4:
                     ejecutarPing();
                     break;
 
-                case 2:
+                case 3:
                     ejecutarTraceroute();
                     break;
 
-                case 1:
+                case 2:
                     ejecutarMST();
                     break;
 
+                case 1:
+                    ejecutarRutasAlternativas();
+                    break;
+
                 case 0:
                     Interfaz.salir();
                     on = false;
@@ -132,6 +140,23 @@ public class Cordinador {
         }
     }
 
+    private void ejecutarRutasAlternativas(){
+        String origen = Interfaz.leerIP(datosRed.getEquiposEncendidos());
+        String destino = Interfaz.leerIP(datosRed.getEquiposEncendidos());
+        int cantidad = Interfaz.leerCantidadRutas();
+        if (cantidad < 1) {
+            return;
+        }
+
+        try{
+            List<Ruta> rutas = red.rutasAlternativas(origen, destino, cantidad);
+            Interfaz.rutasAlternativas(origen, destino, rutas);
+        }
+        catch(IllegalArgumentException e){
+            Interfaz.mostrarError(e.getMessage());
+        }
+    }
+
     private void ejecutarMST(){
         List<String> mst = red.MST();
         Interfaz.MST(mst);
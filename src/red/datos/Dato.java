@@ -2,7 +2,13 @@ package red.datos;
 
 import red.modelo.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 
 public class Dato {
@@ -10,115 +16,278 @@ public class Dato {
 	/**
 	 * 
 	 * @param archivoRouters ruta de acceso para el archivo de routers
-	 * @return mapa con todos los routers asociados a su id
-	 * @throws FileNotFoundException archivo de routers no existe
+	 * @return lista con todos los routers en el orden del archivo
+	 * @throws IOException archivo de routers no existe o no se pudo leer
 	 */
-    private static TreeMap<String, Equipo> cargarRouters(String archivoRouters) throws FileNotFoundException {
-		Scanner read;
-
-		TreeMap<String, Equipo> equipo = new TreeMap<String, Equipo>();
-		
-		
-			read = new Scanner(new File(archivoRouters));
-			read.useDelimiter("\\s*;\\s*");
-		
-			String id, ipAddress, macAddress, status, ubicacion, modelo, firmware, throughput;
-			
-			while (read.hasNext()) {
-				id = read.next();
-				ipAddress = read.next();
-                macAddress = read.next();
-                status = read.next();
-                ubicacion = read.next();
-				modelo = read.next();
-                firmware = read.next();
-                throughput= read.next();
-                equipo.put(ipAddress, new Router(id, ipAddress, macAddress, Boolean.parseBoolean(status), ubicacion, modelo, firmware, Integer.parseInt(throughput)));
-                
+    private static List<Equipo> cargarRouters(String archivoRouters) throws IOException {
+		List<Equipo> equipo = new ArrayList<Equipo>();
+
+		try (LectorCampos read = new LectorCampos(archivoRouters)) {
+			String id, ipAddress, macAddress, ubicacion, modelo, firmware;
+			boolean status;
+			int throughput;
+
+			while (read.siguienteRegistro()) {
+				id = read.texto();
+				ipAddress = read.texto();
+                macAddress = read.texto();
+                status = read.booleano();
+                ubicacion = read.texto();
+				modelo = read.texto();
+                firmware = read.texto();
+                throughput = read.entero();
+                equipo.add(new Router(id, ipAddress, macAddress, status, ubicacion, modelo, firmware, throughput));
 			}
-			read.close();
-		
+		}
 		return equipo;
 	}
     /**
      * 
      * @param archivoComputadoras ruta de acceso al archivo de computadoras
-     * @return mapa con los valores de cada comutadora asociado con su id
-     * @throws FileNotFoundException el archivo de computadoras no existe
+     * @return lista con todas las computadoras en el orden del archivo
+     * @throws IOException el archivo de computadoras no existe o no se pudo leer
      */
-	private static TreeMap<String, Equipo> cargarComputadoras(String archivoComputadoras) throws FileNotFoundException {
-		Scanner read;
-		TreeMap<String, Equipo> equipo = new TreeMap<String, Equipo>();
-		
-			read = new Scanner(new File(archivoComputadoras));
-			read.useDelimiter("\\s*;\\s*");
-			
-			String id, ipAddress, macAddress, status, ubicacion;
-			while (read.hasNext()) {				
-                id = read.next();
-				ipAddress = read.next();
-                macAddress = read.next();
-				status = read.next();
-                ubicacion = read.next();
-				equipo.put(ipAddress,new Computadora(id, ipAddress, macAddress, Boolean.parseBoolean(status), ubicacion));
+	private static List<Equipo> cargarComputadoras(String archivoComputadoras) throws IOException {
+		List<Equipo> equipo = new ArrayList<Equipo>();
+
+		try (LectorCampos read = new LectorCampos(archivoComputadoras)) {
+			String id, ipAddress, macAddress, ubicacion;
+			boolean status;
+			while (read.siguienteRegistro()) {
+                id = read.texto();
+				ipAddress = read.texto();
+                macAddress = read.texto();
+				status = read.booleano();
+                ubicacion = read.texto();
+				equipo.add(new Computadora(id, ipAddress, macAddress, status, ubicacion));
 			}
-			read.close();
-		
+		}
 		return equipo;
 	}
 
 
 
 	/**
-	 * combina los dos mapas de computadoras y routers en uno solo
+	 * combina los routers y las computadoras en un solo mapa ordenado
 	 * @param archivoComputadoras ruta de acceso para el archivo de computadoras
 	 * @param archivoRouters ruta de acceso para el archivo de touters
 	 * @return mapa con los valores de los equipos asociados a su id
-	 * @throws FileNotFoundException archivo de computadoras y/o archivo de routers no encontrado
+	 * @throws IOException archivo de computadoras y/o archivo de routers no encontrado o ilegible
 	 */
-    public static TreeMap<String, Equipo> cargarEquipos(String archivoComputadoras, String archivoRouters) throws FileNotFoundException {
-        TreeMap<String, Equipo> equipos = new TreeMap<>();
+    public static TreeMap<String, Equipo> cargarEquipos(String archivoComputadoras, String archivoRouters) throws IOException {
+        return new TreeMap<>(cargarIndiceEquipos(archivoComputadoras, archivoRouters));
+    }
+
+    /**
+     * lee los routers y las computadoras al mismo tiempo (los routers en el ForkJoinPool común)
+     * y los vuelca en un único mapa de tamaño ya reservado; si una IP se repite prevalece la
+     * computadora, igual que en cargarEquipos
+     * @param archivoComputadoras ruta de acceso para el archivo de computadoras
+     * @param archivoRouters ruta de acceso para el archivo de routers
+     * @return mapa sin orden de los equipos asociados a su IP, para búsquedas en O(1)
+     * @throws IOException archivo de computadoras y/o archivo de routers no encontrado o ilegible
+     */
+    public static HashMap<String, Equipo> cargarIndiceEquipos(String archivoComputadoras, String archivoRouters) throws IOException {
+        Future<List<Equipo>> routers = ForkJoinPool.commonPool().submit(() -> cargarRouters(archivoRouters));
+        List<Equipo> computadoras = cargarComputadoras(archivoComputadoras);
+        List<Equipo> listaRouters = esperar(routers);
 
-        equipos.putAll(Dato.cargarRouters(archivoRouters));
-        equipos.putAll(Dato.cargarComputadoras(archivoComputadoras));
-        
+        int cantidad = listaRouters.size() + computadoras.size();
+        HashMap<String, Equipo> equipos = new HashMap<>((int) (cantidad / 0.75f) + 1);
+        for (Equipo e : listaRouters) {
+            equipos.put(e.getIpAddress(), e);
+        }
+        for (Equipo e : computadoras) {
+            equipos.put(e.getIpAddress(), e);
+        }
         return equipos;
     }
 
     /**
-     * lee el archivo de conexiones y las carga a una lista
+     * Tamaño de archivo de conexiones a partir del cual conviene leerlo en paralelo.
+     */
+    private static final long UMBRAL_PARALELO = 8L << 20;
+
+    /**
+     * Tamaño mínimo de cada trozo del archivo en la lectura en paralelo.
+     */
+    private static final long TROZO_MINIMO = 1L << 20;
+
+    /**
+     * Tamaño máximo de cada trozo (un MappedByteBuffer no puede superar los 2 GB).
+     */
+    private static final long TROZO_MAXIMO = 1L << 30;
+
+    /**
+     * lee el archivo de conexiones y las carga a una lista; si el archivo es grande lo lee
+     * en paralelo con cargarConexionesParalelo
      * @param archivoConexiones ruta de acceso al archivo de los routers
      * @param equipos mapa de los equipos
      * @return lista de conexiones
-     * @throws FileNotFoundException archivo de conexiones no encontrado
+     * @throws IOException archivo de conexiones no encontrado o ilegible
+     */
+    public static List<Conexion> cargarConexiones(String archivoConexiones, TreeMap<String, Equipo> equipos) throws IOException {
+        List<Conexion> conexiones = new ArrayList<Conexion>();
+        cargarConexiones(archivoConexiones, equipos, conexiones::add);
+	    return conexiones;
+    }
+
+    /**
+     * lee el archivo de conexiones y entrega cada una, en el orden del archivo, a un consumidor,
+     * sin armar la lista completa; si el archivo es grande lo lee en paralelo. El consumidor
+     * siempre se invoca desde el hilo que llama a este método
+     * @param archivoConexiones ruta de acceso al archivo de conexiones
+     * @param equipos mapa de los equipos, que solo se consulta
+     * @param destino recibe cada conexión leída
+     * @throws IOException archivo de conexiones no encontrado o ilegible
+     */
+    public static void cargarConexiones(String archivoConexiones, Map<String, Equipo> equipos, Consumer<Conexion> destino) throws IOException {
+        if (new File(archivoConexiones).length() >= UMBRAL_PARALELO) {
+            cargarConexionesParalelo(archivoConexiones, equipos, destino);
+            return;
+        }
+        try (LectorCampos read = new LectorCampos(archivoConexiones)) {
+            leerConexiones(read, equipos, destino);
+        }
+    }
+
+    /**
+     * lee el archivo de conexiones mapeándolo en memoria: lo divide en trozos que terminan en
+     * fin de línea, los interpreta en paralelo en el ForkJoinPool común y une las listas de
+     * cada trozo en el orden del archivo, de modo que el resultado es el de cargarConexiones
+     * @param archivoConexiones ruta de acceso al archivo de conexiones
+     * @param equipos mapa de los equipos, que solo se consulta
+     * @return lista de conexiones en el orden del archivo
+     * @throws IOException archivo de conexiones no encontrado o ilegible
+     * Complejidad Temporal: O(N / P) para un archivo de N bytes y P núcleos.
      */
-    public static List<Conexion> cargarConexiones(String archivoConexiones, TreeMap<String, Equipo> equipos) throws FileNotFoundException {
-        Scanner read;
+    public static List<Conexion> cargarConexionesParalelo(String archivoConexiones, Map<String, Equipo> equipos) throws IOException {
         List<Conexion> conexiones = new ArrayList<Conexion>();
+        cargarConexionesParalelo(archivoConexiones, equipos, conexiones::add);
+        return conexiones;
+    }
+
+    /**
+     * versión de cargarConexionesParalelo que entrega las conexiones a un consumidor a medida
+     * que terminan los trozos, en el orden del archivo y desde el hilo que llama, mientras los
+     * trozos siguientes se siguen interpretando
+     */
+    private static void cargarConexionesParalelo(String archivoConexiones, Map<String, Equipo> equipos, Consumer<Conexion> destino) throws IOException {
+        try (FileChannel canal = new FileInputStream(archivoConexiones).getChannel()) {
+            long[] cortes = cortes(canal);
+            List<Future<List<Conexion>>> trozos = new ArrayList<>(cortes.length - 1);
+            for (int i = 0; i + 1 < cortes.length; i++) {
+                long inicio = cortes[i];
+                long fin = cortes[i + 1];
+                trozos.add(ForkJoinPool.commonPool().submit(() -> {
+                    List<Conexion> trozo = new ArrayList<>();
+                    leerConexiones(new LectorCampos(canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio)), equipos, trozo::add);
+                    return trozo;
+                }));
+            }
+            try {
+                for (Future<List<Conexion>> trozo : trozos) {
+                    esperar(trozo).forEach(destino);
+                }
+            } finally {
+                for (Future<List<Conexion>> trozo : trozos) {
+                    trozo.cancel(false);
+                }
+            }
+        }
+    }
 
-        read = new Scanner(new File(archivoConexiones));
-        read.useDelimiter("\\s*;\\s*");
+    /**
+     * espera el resultado de una tarea, relanzando sus errores de lectura tal cual
+     */
+    private static <T> T esperar(Future<T> tarea) throws IOException {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("lectura de datos interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * lee todas las conexiones de un lector y las entrega a un consumidor; los registros cuyos
+     * equipos no existen se informan y se saltean
+     */
+    private static void leerConexiones(LectorCampos read, Map<String, Equipo> equipos, Consumer<Conexion> conexiones) throws IOException {
         Equipo e1, e2;
-        String ipEquipo1, ipEquipo2, tipoConexion, bandwidth, latencia, errorRate;
-        
-        while (read.hasNext()) {
-        	ipEquipo1 = read.next();
-            ipEquipo2 = read.next();
-        	if (equipos.containsKey(ipEquipo1) && equipos.containsKey(ipEquipo2)) {
-        		e1 = equipos.get(ipEquipo1);
-        		e2 = equipos.get(ipEquipo2);
-        		tipoConexion = read.next();
-        		bandwidth = read.next();
-        		latencia = read.next();
-        		errorRate = read.next();
-        		conexiones.add(new Conexion(e1, e2, tipoConexion, Integer.parseInt(bandwidth), Integer.parseInt(latencia), Double.parseDouble(errorRate)));
+        String ipEquipo1, ipEquipo2, tipoConexion;
+        int bandwidth, latencia;
+        double errorRate;
+
+        while (read.siguienteRegistro()) {
+        	ipEquipo1 = read.texto();
+            ipEquipo2 = read.texto();
+            e1 = equipos.get(ipEquipo1);
+            e2 = equipos.get(ipEquipo2);
+        	if (e1 != null && e2 != null) {
+        		tipoConexion = read.texto();
+        		bandwidth = read.entero();
+        		latencia = read.entero();
+        		errorRate = read.real();
+        		conexiones.accept(new Conexion(e1, e2, tipoConexion, bandwidth, latencia, errorRate));
         	} else {
         		System.out.println("Error IPs de los equipos no encontrados en el mapa");
+        		read.saltarRegistro();
         	}
         }
-	    read.close();
+    }
 
-	    return conexiones;
+    /**
+     * divide el archivo en trozos de tamaño parecido, uno o más por núcleo, moviendo cada corte
+     * hasta el comienzo de la línea siguiente para que ningún registro quede partido
+     * @return posiciones de corte crecientes, desde 0 hasta el tamaño del archivo
+     */
+    private static long[] cortes(FileChannel canal) throws IOException {
+        long tamanio = canal.size();
+        long trozo = Math.max(TROZO_MINIMO, tamanio / (4L * ForkJoinPool.getCommonPoolParallelism()));
+        trozo = Math.min(trozo, TROZO_MAXIMO);
+        int cantidad = (int) Math.max(1, (tamanio + trozo - 1) / trozo);
+
+        long[] cortes = new long[cantidad + 1];
+        int k = 1;
+        ByteBuffer bytes = ByteBuffer.allocate(4096);
+        for (int i = 1; i < cantidad; i++) {
+            long corte = Math.max(i * trozo, cortes[k - 1]);
+            corte = finDeLinea(canal, corte, bytes);
+            if (corte > cortes[k - 1] && corte < tamanio) {
+                cortes[k++] = corte;
+            }
+        }
+        cortes[k++] = tamanio;
+        return Arrays.copyOf(cortes, k);
     }
-}
 
+    /**
+     * @return la posición siguiente al primer fin de línea en o después de desde,
+     * o el tamaño del archivo si no hay ninguno
+     */
+    private static long finDeLinea(FileChannel canal, long desde, ByteBuffer bytes) throws IOException {
+        long posicion = desde;
+        while (true) {
+            bytes.clear();
+            int leidos = canal.read(bytes, posicion);
+            if (leidos <= 0) {
+                return canal.size();
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (bytes.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+    }
+}
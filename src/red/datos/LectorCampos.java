@@ -0,0 +1,252 @@
+package red.datos;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lector de archivos de texto con un registro por línea y campos separados por ';'.
+ * Lee el archivo por bloques y convierte los números directamente desde los bytes, sin
+ * expresiones regulares ni Strings intermedios; solo se crea un String al pedir un campo de
+ * texto. Los espacios alrededor de cada campo se descartan, igual que con el delimitador
+ * "\\s*;\\s*" que usaba Scanner. Puede leer un archivo completo o solo una región ya
+ * cargada en memoria, como un trozo del archivo mapeado con FileChannel.map.
+ */
+class LectorCampos implements Closeable {
+
+    private static final int TAMANIO_BLOQUE = 1 << 16;
+
+    /** Potencias de diez exactas en double (10^22 es la mayor). */
+    private static final double[] POTENCIAS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ReadableByteChannel canal;
+    private final ByteBuffer bloque;
+    private byte[] campo = new byte[64];
+    private int largo;
+    private boolean enRegistro;
+
+    /**
+     * Abre un archivo para leerlo por registros.
+     *
+     * @param archivo Ruta de acceso al archivo.
+     * @throws FileNotFoundException El archivo no existe.
+     */
+    LectorCampos(String archivo) throws FileNotFoundException {
+        canal = new FileInputStream(archivo).getChannel();
+        bloque = ByteBuffer.allocate(TAMANIO_BLOQUE);
+        bloque.flip();
+    }
+
+    /**
+     * Lee los registros de una región de bytes; el fin de la región es el fin de la entrada.
+     *
+     * @param region Bytes a leer, desde su posición hasta su límite.
+     */
+    LectorCampos(ByteBuffer region) {
+        canal = null;
+        bloque = region;
+    }
+
+    /**
+     * Avanza al siguiente registro no vacío, descartando lo que quede del registro actual.
+     *
+     * @return true si hay un registro para leer, false al llegar al final del archivo.
+     * Complejidad Temporal: O(1) amortizado por byte salteado.
+     */
+    boolean siguienteRegistro() throws IOException {
+        if (enRegistro) {
+            saltarRegistro();
+        }
+        while (hayDatos()) {
+            byte b = bloque.get(bloque.position());
+            if (!esEspacio(b) && b != '\n') {
+                enRegistro = true;
+                return true;
+            }
+            bloque.get();
+        }
+        return false;
+    }
+
+    /**
+     * Descarta los campos que queden del registro actual.
+     */
+    void saltarRegistro() throws IOException {
+        while (hayDatos()) {
+            if (bloque.get() == '\n') {
+                break;
+            }
+        }
+        enRegistro = false;
+    }
+
+    /**
+     * @return El siguiente campo del registro, o "" si el registro no tiene más campos.
+     */
+    String texto() throws IOException {
+        leerCampo();
+        return cadena();
+    }
+
+    /**
+     * @return El siguiente campo del registro interpretado como Integer.parseInt.
+     * @throws NumberFormatException El campo no es un entero válido.
+     */
+    int entero() throws IOException {
+        leerCampo();
+        int i = 0;
+        boolean negativo = false;
+        if (largo > 0 && (campo[0] == '-' || campo[0] == '+')) {
+            negativo = campo[0] == '-';
+            i = 1;
+        }
+        if (i == largo || largo - i > 9) {
+            return Integer.parseInt(cadena());    // vacío o posible desborde: que decida el JDK
+        }
+        int valor = 0;
+        for (; i < largo; i++) {
+            int d = campo[i] - '0';
+            if (d < 0 || d > 9) {
+                return Integer.parseInt(cadena());    // el JDK arma el mismo error que antes
+            }
+            valor = valor * 10 + d;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Interpreta el siguiente campo como Double.parseDouble. Los decimales simples (hasta 15
+     * dígitos significativos y sin exponente) se calculan como mantisa / 10^k, que con ambos
+     * operandos exactos en double da el mismo resultado correctamente redondeado; el resto de
+     * las formas se delega en Double.parseDouble.
+     *
+     * @return El valor del campo.
+     * @throws NumberFormatException El campo no es un número válido.
+     */
+    double real() throws IOException {
+        leerCampo();
+        int i = 0;
+        boolean negativo = false;
+        if (largo > 0 && (campo[0] == '-' || campo[0] == '+')) {
+            negativo = campo[0] == '-';
+            i = 1;
+        }
+        long mantisa = 0;
+        int cifras = 0;
+        int digitos = 0;
+        int decimales = 0;
+        boolean punto = false;
+        for (; i < largo; i++) {
+            byte b = campo[i];
+            if (b == '.' && !punto) {
+                punto = true;
+            } else if (b >= '0' && b <= '9') {
+                mantisa = mantisa * 10 + (b - '0');
+                cifras++;
+                if (mantisa != 0) {
+                    digitos++;
+                }
+                if (punto) {
+                    decimales++;
+                }
+            } else {
+                break;
+            }
+        }
+        if (i < largo || cifras == 0 || digitos > 15 || decimales >= POTENCIAS.length) {
+            return Double.parseDouble(cadena());
+        }
+        double valor = mantisa / POTENCIAS[decimales];
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * @return El siguiente campo del registro interpretado como Boolean.parseBoolean.
+     */
+    boolean booleano() throws IOException {
+        leerCampo();
+        return largo == 4
+                && (campo[0] | 0x20) == 't' && (campo[1] | 0x20) == 'r'
+                && (campo[2] | 0x20) == 'u' && (campo[3] | 0x20) == 'e';
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (canal != null) {
+            canal.close();
+        }
+    }
+
+    /**
+     * Copia el siguiente campo del registro, sin los espacios que lo rodean, al arreglo campo
+     * y consume el ';' que lo termina. Un fin de línea termina el campo sin consumirse, de
+     * modo que los campos pedidos después de él quedan vacíos.
+     */
+    private void leerCampo() throws IOException {
+        largo = 0;
+        if (!enRegistro) {
+            return;
+        }
+        while (hayDatos() && esEspacio(bloque.get(bloque.position()))) {
+            bloque.get();
+        }
+        while (hayDatos()) {
+            byte b = bloque.get(bloque.position());
+            if (b == '\n') {
+                break;
+            }
+            bloque.get();
+            if (b == ';') {
+                break;
+            }
+            if (largo == campo.length) {
+                byte[] mayor = new byte[largo * 2];
+                System.arraycopy(campo, 0, mayor, 0, largo);
+                campo = mayor;
+            }
+            campo[largo++] = b;
+        }
+        while (largo > 0 && esEspacio(campo[largo - 1])) {
+            largo--;
+        }
+    }
+
+    private String cadena() {
+        return new String(campo, 0, largo, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Espacios que descarta \s, salvo el fin de línea, que separa registros.
+     */
+    private static boolean esEspacio(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    /**
+     * Vuelve a llenar el bloque desde el archivo cuando se agotó.
+     *
+     * @return false si no quedan bytes por leer.
+     */
+    private boolean hayDatos() throws IOException {
+        if (bloque.hasRemaining()) {
+            return true;
+        }
+        if (canal == null) {
+            return false;
+        }
+        bloque.clear();
+        int leidos;
+        do {
+            leidos = canal.read(bloque);
+        } while (leidos == 0);
+        bloque.flip();
+        return leidos > 0;
+    }
+}
@@ -17,7 +17,7 @@ public class Interfaz {
      * @return eleccion del usuario
      */
     public static int opcion() {
-    	String[] options = { "4.salir", "3. Arbol de expansion minimo", "2. Traceroute","1. Ping"};
+    	String[] options = { "5.salir", "4. Rutas alternativas", "3. Arbol de expansion minimo", "2. Traceroute","1. Ping"};
     	
     	int input = JOptionPane.showOptionDialog(
                 null,
@@ -88,6 +88,60 @@ public class Interfaz {
     }
 
 
+    /**
+     * Pide la cantidad de rutas alternativas a calcular, entre 1 y Logica.MAX_RUTAS_ALTERNATIVAS
+     * @return cantidad ingresada, o -1 si se cancela o no es un numero valido
+     */
+    public static int leerCantidadRutas() {
+        String valor = JOptionPane.showInputDialog(null, "Cantidad de rutas a calcular (1 a " + Logica.MAX_RUTAS_ALTERNATIVAS + "):", "3");
+        if (valor == null) {
+            return -1;
+        }
+        int cantidad;
+        try {
+            cantidad = Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            cantidad = -1;
+        }
+        if (cantidad < 1 || cantidad > Logica.MAX_RUTAS_ALTERNATIVAS) {
+            mostrarError("La cantidad de rutas debe estar entre 1 y " + Logica.MAX_RUTAS_ALTERNATIVAS + ".");
+            return -1;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Muestra las rutas alternativas entre dos equipos, de menor a mayor latencia
+     * @param ipOrigen
+     * @param ipDestino
+     * @param rutas
+     */
+    public static void rutasAlternativas(String ipOrigen, String ipDestino, List<Ruta> rutas) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Rutas alternativas %s -> %s\n\n", ipOrigen, ipDestino));
+
+        int numero = 0;
+        for (Ruta ruta : rutas) {
+            numero++;
+            sb.append(String.format("Ruta %d - Latencia: %d ms - Saltos: %d\n", numero, ruta.getLatencia(), ruta.getCamino().size()));
+            StringBuilder saltos = new StringBuilder();
+            for (Vertex<Equipo> v : ruta.getCamino()) {
+                if (saltos.length() > 0) {
+                    saltos.append(" -> ");
+                }
+                saltos.append(v.getElement().getId());
+            }
+            sb.append("  ").append(saltos).append("\n\n");
+        }
+
+        JTextArea outputTextArea = new JTextArea(sb.toString());
+        outputTextArea.setEditable(false);
+        outputTextArea.setFont(new java.awt.Font("Monospaced", java.awt.Font.PLAIN, 12));
+        outputTextArea.setCaretPosition(0);
+
+        JOptionPane.showMessageDialog(null, outputTextArea, "Rutas alternativas", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Muestra el arbol de expansion minimo
      * @param mst Lista de conexiones del arbol de expansion minimo
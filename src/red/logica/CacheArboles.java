@@ -0,0 +1,81 @@
+package red.logica;
+
+import net.datastructures.CSRGraph;
+import net.datastructures.GraphAlgorithms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU de árboles de caminos mínimos indexados por el vértice de origen.
+ * Cada árbol guarda las distancias y los predecesores calculados por Dijkstra, de modo
+ * que una nueva ruta desde un origen ya visto se reconstruye recorriendo predecesores.
+ * Los métodos son sincronizados para poder compartir la caché entre hilos.
+ */
+class CacheArboles {
+
+    /**
+     * Árbol de caminos mínimos de un origen.
+     */
+    static class Arbol {
+        final int[] distancias;
+        final int[] predecesores;
+
+        Arbol(int[] distancias, int[] predecesores) {
+            this.distancias = distancias;
+            this.predecesores = predecesores;
+        }
+    }
+
+    private final LinkedHashMap<Integer, Arbol> arboles;
+    private long aciertos;
+    private long fallos;
+
+    /**
+     * @param capacidad Cantidad máxima de árboles guardados; al superarla se descarta el menos usado.
+     */
+    CacheArboles(int capacidad) {
+        arboles = new LinkedHashMap<Integer, Arbol>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Arbol> eldest) {
+                return size() > capacidad;
+            }
+        };
+    }
+
+    /**
+     * Retorna el árbol de caminos mínimos con raíz en el origen, calculándolo si no está guardado.
+     *
+     * @param grafo Grafo CSR al que pertenece el origen.
+     * @param origen Índice del vértice de origen.
+     * Complejidad Temporal: O(1) si está en la caché, O((V + E) log V) en caso contrario.
+     */
+    synchronized Arbol arbol(CSRGraph<?, ?> grafo, int origen) {
+        Arbol arbol = arboles.get(origen);
+        if (arbol != null) {
+            aciertos++;
+            return arbol;
+        }
+        fallos++;
+        int[] pred = new int[grafo.numVertices()];
+        int[] d = GraphAlgorithms.shortestPathTree(grafo, origen, pred);
+        arbol = new Arbol(d, pred);
+        arboles.put(origen, arbol);
+        return arbol;
+    }
+
+    /**
+     * Descarta todos los árboles guardados (los contadores se conservan).
+     */
+    synchronized void limpiar() {
+        arboles.clear();
+    }
+
+    synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    synchronized long getFallos() {
+        return fallos;
+    }
+}
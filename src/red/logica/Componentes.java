@@ -0,0 +1,106 @@
+package red.logica;
+
+import red.modelo.Equipo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Componentes conexas de la red activa: cada equipo encendido recibe el número del segmento
+ * al que pertenece, de modo que saber si dos equipos pueden comunicarse es una comparación.
+ * Es una foto del estado de la red al momento de armarse; Logica la arma a partir de su índice
+ * de componentes, que mantiene ante cada cambio de estado.
+ */
+public class Componentes {
+    private final Equipo[] equipos;
+    private final HashMap<String, Integer> indice;
+    private final int[] componente;
+    private final int[] tamanios;
+
+    /**
+     * @param equipos Todos los equipos de la red, por número.
+     * @param indice Índice IP -> número de equipo.
+     * @param componente Componente de cada equipo, o -1 si está apagado.
+     * @param cantidad Cantidad de componentes.
+     * Complejidad Temporal: O(V).
+     */
+    Componentes(Equipo[] equipos, HashMap<String, Integer> indice, int[] componente, int cantidad) {
+        this.equipos = equipos;
+        this.indice = indice;
+        this.componente = componente;
+        tamanios = new int[cantidad];
+        for (int c : componente) {
+            if (c >= 0) {
+                tamanios[c]++;
+            }
+        }
+    }
+
+    /**
+     * @return La cantidad de componentes (segmentos aislados entre sí) de la red activa.
+     */
+    public int getCantidad() {
+        return tamanios.length;
+    }
+
+    /**
+     * @return La cantidad de equipos de cada componente, indexada por número de componente.
+     */
+    public int[] getTamanios() {
+        return tamanios.clone();
+    }
+
+    /**
+     * Retorna el número de componente de un equipo.
+     *
+     * @param ip Dirección IP del equipo.
+     * @return Un número entre 0 y getCantidad() - 1, o -1 si el equipo no existe o está apagado.
+     * Complejidad Temporal: O(1).
+     */
+    public int componente(String ip) {
+        Integer v = indice.get(ip);
+        return v == null ? -1 : componente[v];
+    }
+
+    /**
+     * Indica si existe alguna ruta activa entre dos equipos.
+     *
+     * @param ipOrigen Dirección IP de uno de los equipos.
+     * @param ipDestino Dirección IP del otro equipo.
+     * @return true si ambos están encendidos y en la misma componente.
+     * Complejidad Temporal: O(1).
+     */
+    public boolean alcanzables(String ipOrigen, String ipDestino) {
+        int a = componente(ipOrigen);
+        return a != -1 && a == componente(ipDestino);
+    }
+
+    /**
+     * @return Los equipos de la componente c.
+     * Complejidad Temporal: O(V).
+     */
+    public List<Equipo> getEquipos(int c) {
+        List<Equipo> lista = new ArrayList<>(tamanios[c]);
+        for (int v = 0; v < componente.length; v++) {
+            if (componente[v] == c) {
+                lista.add(equipos[v]);
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Componentes: ").append(tamanios.length).append('\n');
+        for (int c = 0; c < tamanios.length; c++) {
+            sb.append("  [").append(c).append("] ").append(tamanios[c]).append(" equipos:");
+            for (Equipo e : getEquipos(c)) {
+                sb.append(' ').append(e.getId());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
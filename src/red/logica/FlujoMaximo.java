@@ -0,0 +1,56 @@
+package red.logica;
+
+import red.modelo.Conexion;
+
+import java.util.List;
+
+/**
+ * Resultado de un análisis de capacidad entre dos equipos: el flujo máximo que puede
+ * enviarse usando el ancho de banda de las conexiones activas, y las conexiones que forman
+ * el corte mínimo (el cuello de botella que limita ese flujo).
+ */
+public class FlujoMaximo {
+    private final String ipOrigen;
+    private final String ipDestino;
+    private final long capacidad;
+    private final List<Conexion> corte;
+
+    FlujoMaximo(String ipOrigen, String ipDestino, long capacidad, List<Conexion> corte) {
+        this.ipOrigen = ipOrigen;
+        this.ipDestino = ipDestino;
+        this.capacidad = capacidad;
+        this.corte = corte;
+    }
+
+    public String getIpOrigen() {
+        return ipOrigen;
+    }
+
+    public String getIpDestino() {
+        return ipDestino;
+    }
+
+    /**
+     * @return El ancho de banda total que puede enviarse del origen al destino.
+     */
+    public long getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * @return Las conexiones del corte mínimo; la suma de sus anchos de banda es la capacidad.
+     */
+    public List<Conexion> getCorte() {
+        return corte;
+    }
+
+    @Override
+    public String toString() {
+        return "FlujoMaximo{" +
+                "ipOrigen='" + ipOrigen + '\'' +
+                ", ipDestino='" + ipDestino + '\'' +
+                ", capacidad=" + capacidad +
+                ", corte=" + corte.size() + " conexiones" +
+                '}';
+    }
+}
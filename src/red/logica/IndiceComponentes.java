@@ -0,0 +1,156 @@
+package red.logica;
+
+import net.datastructures.ConcurrentUnionFind;
+import net.datastructures.Edge;
+import net.datastructures.Graph;
+import net.datastructures.Vertex;
+import red.modelo.Conexion;
+import red.modelo.Equipo;
+
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Índice de componentes conexas de la red activa que se mantiene junto con el grafo activo.
+ * Numera una sola vez todos los equipos y conexiones de la red y guarda un Union-Find de los
+ * equipos unidos por conexiones activas. Encender un equipo o una conexión solo une conjuntos;
+ * apagar algo lo deja desactualizado, porque un Union-Find no puede separar conjuntos, y se
+ * reconstruye en la siguiente consulta que lo necesite.
+ */
+class IndiceComponentes {
+
+    private final HashMap<String, Integer> numero;
+    private final Equipo[] equipos;
+    private final Conexion[] conexiones;
+    private final int[] extremoA;
+    private final int[] extremoB;
+    // null mientras está desactualizado
+    private ConcurrentUnionFind bosque;
+
+    /**
+     * Numera los equipos y conexiones de la red y calcula las componentes de la red activa.
+     *
+     * @param red Grafo completo de la red.
+     * Complejidad Temporal: O(V + E α(V)), repartida entre los núcleos disponibles.
+     */
+    IndiceComponentes(Graph<Equipo, Conexion> red) {
+        HashMap<Vertex<Equipo>, Integer> indice = new HashMap<>(red.numVertices() * 2);
+        numero = new HashMap<>(red.numVertices() * 2);
+        equipos = new Equipo[red.numVertices()];
+        for (Vertex<Equipo> v : red.vertices()) {
+            int i = indice.size();
+            indice.put(v, i);
+            numero.put(v.getElement().getIpAddress(), i);
+            equipos[i] = v.getElement();
+        }
+        conexiones = new Conexion[red.numEdges()];
+        extremoA = new int[conexiones.length];
+        extremoB = new int[conexiones.length];
+        int j = 0;
+        for (Edge<Conexion> e : red.edges()) {
+            Vertex<Equipo>[] extremos = red.endVertices(e);
+            conexiones[j] = e.getElement();
+            extremoA[j] = indice.get(extremos[0]);
+            extremoB[j] = indice.get(extremos[1]);
+            j++;
+        }
+        reconstruir();
+    }
+
+    /**
+     * @return true si el índice refleja el estado actual de la red sin necesidad de reconstruirse.
+     */
+    boolean vigente() {
+        return bosque != null;
+    }
+
+    /**
+     * Marca el índice como desactualizado; se usa cuando se apaga un equipo o una conexión.
+     */
+    void desactualizar() {
+        bosque = null;
+    }
+
+    /**
+     * Une las componentes de los extremos de una conexión si está activa y ambos equipos están
+     * encendidos. No hace nada si el índice está desactualizado.
+     *
+     * @param c Conexión que se encendió o cuyo equipo se encendió.
+     * Complejidad Temporal: O(α(V)).
+     */
+    void unir(Conexion c) {
+        if (bosque != null && activa(c)) {
+            bosque.union(numero.get(c.getSource().getIpAddress()), numero.get(c.getTarget().getIpAddress()));
+        }
+    }
+
+    /**
+     * Indica si dos equipos están encendidos y en la misma componente. Puede invocarse desde
+     * varios hilos a la vez mientras la red no cambie.
+     *
+     * Complejidad Temporal: O(α(V)) si el índice está vigente, O(V + E α(V)) si hay que reconstruirlo.
+     */
+    boolean alcanzables(String ipOrigen, String ipDestino) {
+        ConcurrentUnionFind f = actualizar();
+        Integer a = numero.get(ipOrigen);
+        Integer b = numero.get(ipDestino);
+        if (a == null || b == null || !equipos[a].isStatus() || !equipos[b].isStatus()) {
+            return false;
+        }
+        return f.connected(a, b);
+    }
+
+    /**
+     * Arma una foto de las componentes actuales, numeradas de 0 en adelante en el orden en que
+     * aparece su primer equipo encendido.
+     *
+     * Complejidad Temporal: O(V α(V)) si el índice está vigente.
+     */
+    Componentes componentes() {
+        ConcurrentUnionFind f = actualizar();
+        int n = equipos.length;
+        int[] componente = new int[n];
+        int[] etiqueta = new int[n];              // etiqueta de cada representante, más uno
+        int cantidad = 0;
+        for (int v = 0; v < n; v++) {
+            if (!equipos[v].isStatus()) {
+                componente[v] = -1;
+                continue;
+            }
+            int raiz = f.find(v);
+            if (etiqueta[raiz] == 0) {
+                etiqueta[raiz] = ++cantidad;
+            }
+            componente[v] = etiqueta[raiz] - 1;
+        }
+        return new Componentes(equipos, numero, componente, cantidad);
+    }
+
+    /**
+     * Reconstruye el índice si está desactualizado. Debe invocarse antes de consultarlo desde
+     * varios hilos, para que ninguno tenga que reconstruirlo durante la consulta.
+     *
+     * @return El Union-Find vigente.
+     * Complejidad Temporal: O(1) si está vigente, O(V + E α(V)) en caso contrario.
+     */
+    ConcurrentUnionFind actualizar() {
+        if (bosque == null) {
+            reconstruir();
+        }
+        return bosque;
+    }
+
+    private void reconstruir() {
+        ConcurrentUnionFind nuevo = new ConcurrentUnionFind(equipos.length);
+        IntStream.range(0, conexiones.length).parallel().forEach(j -> {
+            if (activa(conexiones[j])) {
+                nuevo.union(extremoA[j], extremoB[j]);
+            }
+        });
+        bosque = nuevo;
+    }
+
+    private static boolean activa(Conexion c) {
+        return c.isStatus() && c.getSource().isStatus() && c.getTarget().isStatus();
+    }
+}
@@ -4,8 +4,13 @@ import net.datastructures.*;
 import red.modelo.Conexion;
 import red.modelo.Equipo;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * Clase encargada de la lógica de negocio de la red de computadoras.
@@ -14,7 +19,48 @@ import java.util.TreeMap;
 public class Logica {
 
     private final Graph<Equipo, Conexion> red;
-    private final TreeMap<String, Vertex<Equipo>> vertices;
+    private final HashMap<String, Vertex<Equipo>> vertices;
+
+    // Copia del grafo activo para los modos DIJKSTRA y BIDIRECCIONAL y para Kruskal; solo se
+    // construye cuando alguno de ellos la pide y se descarta ante cualquier cambio de estado
+    private Graph<Equipo, Integer> grafoActivo;
+    // Índice IP -> vértice del grafo activo, construido junto con el grafo
+    private HashMap<String, Vertex<Equipo>> mapaActivos;
+
+    // Copia compacta (CSR) del grafo activo; se descarta ante cualquier cambio de estado
+    private CSRGraph<Equipo, Conexion> grafoCSR;
+    private HashMap<String, Integer> indiceCSR;
+    // Ancho de banda y tasa de error de cada arista de la copia CSR, por índice de arista
+    private int[] anchosCSR;
+    private double[] erroresCSR;
+
+    // Tabla de latencias entre todos los pares; si fue solicitada se recalcula tras cada cambio
+    private boolean usarTablaLatencias;
+    private TablaLatencias tablaLatencias;
+
+    // Árboles de caminos mínimos de los últimos orígenes consultados sobre la copia CSR
+    private static final int CAPACIDAD_CACHE_RUTAS = 64;
+    private final CacheArboles cacheRutas = new CacheArboles(CAPACIDAD_CACHE_RUTAS);
+
+    // Bosque de expansión mínima mantenido ante cada cambio de estado o latencia
+    private MSTDinamico mstDinamico;
+
+    // Índice de componentes conexas de la red activa, mantenido con cada cambio de estado: se
+    // actualiza al encender equipos o conexiones y queda desactualizado al apagarlos
+    private IndiceComponentes indiceComponentes;
+    // Foto de las componentes armada a partir del índice; se descarta ante cada cambio de estado
+    private Componentes componentes;
+
+    // Distancias desde los equipos de referencia de ALT y copia CSR en la que están numeradas;
+    // se conservan (renumeradas) mientras los cambios solo puedan alargar las rutas
+    private static final int CANTIDAD_REFERENCIAS = 8;
+    /** Cantidad máxima de rutas que se pueden pedir a rutasAlternativas. */
+    public static final int MAX_RUTAS_ALTERNATIVAS = 50;
+    private Landmarks referencias;
+    private CSRGraph<Equipo, Conexion> grafoReferencias;
+
+    // Jerarquía de contracción de la copia CSR; se descarta ante cualquier cambio
+    private ContractionHierarchy<Equipo> jerarquia;
 
     /**
      * Constructor que inicializa el grafo principal y carga los datos de equipos y conexiones.
@@ -24,24 +70,67 @@ public class Logica {
           * Complejidad Temporal: O(V + E), donde V es el número de equipos y E el número de conexiones.
      */
     public Logica(TreeMap<String, Equipo> equipos, List<Conexion> conexiones) {
+        this(equipos);
+        for (Conexion con : conexiones) {
+            insertarConexion(con);
+        }
+    }
+
+    /**
+     * Constructor que inicializa el grafo principal solo con los equipos; las conexiones se
+     * incorporan luego con agregarConexion, por ejemplo a medida que se leen del archivo.
+     *
+     * @param equipos Mapa ordenado de equipos donde la clave es el ID y el valor es el objeto Equipo.
+     * Complejidad Temporal: O(V).
+     */
+    public Logica(TreeMap<String, Equipo> equipos) {
         red = new AdjacencyMapGraph<>(false);
-        vertices = new TreeMap<>();
+        vertices = new HashMap<>(equipos.size() * 2);
 
         for (Equipo equipo : equipos.values()) {
             Vertex<Equipo> v = red.insertVertex(equipo);
             vertices.put(equipo.getIpAddress(), v);
         }
+    }
 
-        for (Conexion con : conexiones) {
-            Vertex<Equipo> v1 = vertices.get(con.getSource().getIpAddress());
-            Vertex<Equipo> v2 = vertices.get(con.getTarget().getIpAddress());
+    /**
+     * Agrega una conexión al grafo principal. Se ignora si alguno de sus equipos no está en la
+     * red o si ya existe una conexión entre ellos. Como cambia la estructura de la red, descarta
+     * el grafo activo, el bosque de expansión mínima y las demás copias en caché.
+     *
+     * @param con Conexión a agregar.
+     * @return true si la conexión se agregó.
+     * Complejidad Temporal: O(1).
+     */
+    public boolean agregarConexion(Conexion con) {
+        if (!insertarConexion(con)) {
+            return false;
+        }
+        invalidarGrafoActivo();
+        return true;
+    }
 
-            if (v1 != null && v2 != null) {
-                if (red.getEdge(v1, v2) == null) {
-                    red.insertEdge(v1, v2, con);
-                }
-            }
+    private boolean insertarConexion(Conexion con) {
+        Vertex<Equipo> v1 = vertices.get(con.getSource().getIpAddress());
+        Vertex<Equipo> v2 = vertices.get(con.getTarget().getIpAddress());
+
+        if (v1 == null || v2 == null || red.getEdge(v1, v2) != null) {
+            return false;
         }
+        red.insertEdge(v1, v2, con);
+        return true;
+    }
+
+    /**
+     * @return Las conexiones del grafo principal, en el orden en que se agregaron.
+     * Complejidad Temporal: O(E).
+     */
+    public List<Conexion> getConexiones() {
+        List<Conexion> conexiones = new ArrayList<>(red.numEdges());
+        for (Edge<Conexion> e : red.edges()) {
+            conexiones.add(e.getElement());
+        }
+        return conexiones;
     }
 
     /**
@@ -56,80 +145,752 @@ public class Logica {
     }
 
     /**
-     * Calcula el camino óptimo (menor latencia) entre dos equipos utilizando el algoritmo de Dijkstra.
-     * Se consideran únicamente los nodos y conexiones que están activos.
+     * Calcula el camino óptimo (menor latencia) entre dos equipos utilizando el algoritmo de Dijkstra
+     * sobre la copia compacta (CSR) del grafo activo. Se consideran únicamente los nodos y conexiones
+     * que están activos. El árbol de caminos mínimos de cada origen queda en la caché de rutas, de
+     * modo que otra consulta desde el mismo origen solo recorre predecesores.
      *
      * @param ipOrigen Identificador del equipo de origen.
      * @param ipDestino Identificador del equipo de destino.
      * @return Una lista posicional de vértices que representa la ruta desde el origen hasta el destino.
-     * @throws IllegalArgumentException Si alguno de los equipos no existe o no está activo en el grafo adaptado.
-     * Complejidad Temporal: O(nlog(n)), dominada por la ejecución del algoritmo de Dijkstra.
+     * @throws IllegalArgumentException Si alguno de los equipos no existe, no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(largo de la ruta) si el origen está en la caché, O((V + E) log V) si no.
      */
     public PositionalList<Vertex<Equipo>> traceroute(String ipOrigen, String ipDestino) {
+        return traceroute(ipOrigen, ipDestino, ModoTraceroute.CSR);
+    }
+
+    /**
+     * Calcula el camino óptimo (menor latencia) entre dos equipos con el algoritmo indicado.
+     * Se consideran únicamente los nodos y conexiones que están activos. Antes de buscar se
+     * comparan las componentes de ambos equipos, de modo que un destino en otro segmento de la
+     * red se rechaza en O(1). Con DIJKSTRA y BIDIRECCIONAL la comparación solo se hace si el
+     * índice de componentes ya existe y está vigente; si no, es la búsqueda la que informa que
+     * no hay ruta, sin reconstruir nada por una sola consulta.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @param modo Algoritmo de búsqueda a utilizar.
+     * @return Una lista posicional de vértices que representa la ruta desde el origen hasta el destino.
+     * @throws IllegalArgumentException Si alguno de los equipos no existe, no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(nlog(n)), dominada por la búsqueda elegida.
+     */
+    public PositionalList<Vertex<Equipo>> traceroute(String ipOrigen, String ipDestino, ModoTraceroute modo) {
+        if (modo == ModoTraceroute.CSR) {
+            return tracerouteCSR(ipOrigen, ipDestino);
+        }
+        if (modo == ModoTraceroute.ALT) {
+            int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+            return GraphAlgorithms.altShortestPath(grafoCSR, extremos[0], extremos[1], referencias());
+        }
+        if (modo == ModoTraceroute.ANCHO_DE_BANDA) {
+            int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+            return GraphAlgorithms.widestPath(grafoCSR, extremos[0], extremos[1], anchosCSR);
+        }
+        if (modo == ModoTraceroute.CONFIABLE) {
+            int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+            return GraphAlgorithms.mostReliablePath(grafoCSR, extremos[0], extremos[1], erroresCSR);
+        }
+        if (modo == ModoTraceroute.CH) {
+            int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+            return jerarquia().shortestPath(extremos[0], extremos[1]);
+        }
 
         PositionalList<Vertex<Equipo>> camino;
 
-        Graph<Equipo, Integer> grafoActivo = crearGrafoActivo();
+        Graph<Equipo, Integer> grafoActivo = grafoActivo();
 
-        Vertex<Equipo> origenNode = null;
-        Vertex<Equipo> destinoNode = null;
+        Vertex<Equipo> origenNode = mapaActivos.get(ipOrigen);
+        Vertex<Equipo> destinoNode = mapaActivos.get(ipDestino);
 
-        for (Vertex<Equipo> v : grafoActivo.vertices()) {
-            String ip = v.getElement().getIpAddress();
-            if (ip.equals(ipOrigen)) {
-                origenNode = v;
+        if (origenNode == null || destinoNode == null) {
+            throw new IllegalArgumentException("Uno o ambos equipos no se encuentran activos o no existen en la red.");
+        }
+        if (indiceComponentes != null && indiceComponentes.vigente()
+                && !indiceComponentes.alcanzables(ipOrigen, ipDestino)) {
+            throw new IllegalArgumentException(sinRuta(origenNode.getElement(), destinoNode.getElement()));
+        }
+
+        try{
+            if (modo == ModoTraceroute.BIDIRECCIONAL) {
+                camino = GraphAlgorithms.bidirectionalShortestPath(grafoActivo, origenNode, destinoNode);
+            } else {
+                camino = GraphAlgorithms.shortestPath(grafoActivo, origenNode, destinoNode);
             }
-            if (ip.equals(ipDestino)) {
-                destinoNode = v;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(sinRuta(origenNode.getElement(), destinoNode.getElement()));
+        }
+
+        return camino;
+    }
+
+    /**
+     * Calcula el camino de menor latencia sobre la copia compacta (CSR) del grafo activo.
+     * El árbol de caminos mínimos del origen se toma de la caché de rutas, de modo que una
+     * segunda consulta desde el mismo origen solo recorre predecesores.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return Una lista posicional de vértices que representa la ruta desde el origen hasta el destino.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(largo de la ruta) si el origen está en la caché, O((V + E) log V) si no.
+     */
+    private PositionalList<Vertex<Equipo>> tracerouteCSR(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        CacheArboles.Arbol arbol = cacheRutas.arbol(grafoCSR, extremos[0]);
+        return GraphAlgorithms.pathTo(grafoCSR, extremos[0], extremos[1], arbol.predecesores);
+    }
+
+    /**
+     * Retorna las distancias desde los equipos de referencia numeradas según la copia CSR actual.
+     * Si no existen se eligen CANTIDAD_REFERENCIAS equipos, cada uno el más lejano de los
+     * anteriores; si la copia CSR cambió solo se renumeran, ya que los cambios que no las
+     * descartaron no pueden acortar ninguna ruta y las cotas siguen siendo válidas.
+     *
+     * Complejidad Temporal: O(V) si solo se renumeran, O(k (V + E) log V) si se recalculan.
+     */
+    private Landmarks referencias() {
+        CSRGraph<Equipo, Conexion> grafo = grafoCSR();
+        if (referencias == null) {
+            referencias = Landmarks.select(grafo, CANTIDAD_REFERENCIAS);
+        } else if (grafoReferencias != grafo) {
+            int[] anterior = new int[grafo.numVertices()];
+            Arrays.fill(anterior, -1);
+            for (int i = 0; i < grafoReferencias.numVertices(); i++) {
+                Integer j = indiceCSR.get(grafoReferencias.vertex(i).getElement().getIpAddress());
+                if (j != null) {
+                    anterior[j] = i;
+                }
             }
+            referencias = referencias.reindex(anterior);
         }
+        grafoReferencias = grafo;
+        return referencias;
+    }
 
+    /**
+     * Calcula el camino de menor latencia entre dos equipos usando solo conexiones activas con
+     * al menos el ancho de banda indicado.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @param anchoMinimo Ancho de banda mínimo que debe tener cada conexión de la ruta.
+     * @return Una lista posicional de vértices que representa la ruta desde el origen hasta el destino.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay una ruta con ese ancho de banda.
+     * Complejidad Temporal: O((V + E) log V).
+     */
+    public PositionalList<Vertex<Equipo>> tracerouteConAnchoMinimo(String ipOrigen, String ipDestino, int anchoMinimo) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        try {
+            return GraphAlgorithms.shortestPath(grafoCSR, extremos[0], extremos[1], anchosCSR, anchoMinimo);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(sinRuta(extremos) + " Ninguna ruta tiene un ancho de banda de al menos " + anchoMinimo + ".");
+        }
+    }
 
-        if (origenNode == null || destinoNode == null) {
+    /**
+     * Retorna el mayor ancho de banda que puede obtenerse entre dos equipos, es decir, el de la
+     * conexión más angosta de la ruta más ancha.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return El ancho de banda del cuello de botella, o Integer.MAX_VALUE si ambos equipos coinciden.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O((V + E) log V).
+     */
+    public int anchoDeBanda(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        return GraphAlgorithms.widestPathTree(grafoCSR, extremos[0], extremos[1], anchosCSR, null)[extremos[1]];
+    }
+
+    /**
+     * Retorna la mayor probabilidad con la que un paquete puede llegar de un equipo a otro sin
+     * perderse, considerando la tasa de error de cada conexión.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return El producto de (1 - tasa de error) a lo largo de la ruta más confiable.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O((V + E) log V).
+     */
+    public double confiabilidad(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        double[] costos = GraphAlgorithms.reliabilityCosts(erroresCSR);
+        return Math.exp(-GraphAlgorithms.shortestPathTree(grafoCSR, extremos[0], extremos[1], costos, null)[extremos[1]]);
+    }
+
+    /**
+     * Calcula las rutas que no pueden mejorarse en latencia sin perder confiabilidad ni en
+     * confiabilidad sin sumar latencia (conjunto de Pareto), de la más rápida a la más confiable.
+     * Permite elegir, por ejemplo, la ruta más rápida para VoIP y la más confiable para respaldos.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return Las rutas del conjunto de Pareto, con su latencia y su confiabilidad.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(P E log(P E)), donde P es la cantidad de rutas de Pareto por equipo.
+     */
+    public List<Ruta> rutasLatenciaConfiabilidad(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        double[] costos = GraphAlgorithms.reliabilityCosts(erroresCSR);
+        int[][] caminos = GraphAlgorithms.paretoPaths(grafoCSR, extremos[0], extremos[1], costos);
+
+        List<Ruta> rutas = new ArrayList<>(caminos.length);
+        for (int[] vertices : caminos) {
+            PositionalList<Vertex<Equipo>> camino = new LinkedPositionalList<>();
+            camino.addLast(grafoCSR.vertex(vertices[0]));
+            int latencia = 0;
+            double costo = 0;
+            for (int i = 1; i < vertices.length; i++) {
+                int e = grafoCSR.index(grafoCSR.getEdge(grafoCSR.vertex(vertices[i - 1]), grafoCSR.vertex(vertices[i])));
+                latencia += grafoCSR.weight(e);
+                costo += costos[e];
+                camino.addLast(grafoCSR.vertex(vertices[i]));
+            }
+            rutas.add(new Ruta(ipOrigen, ipDestino, camino, latencia, Math.exp(-costo)));
+        }
+        return rutas;
+    }
+
+    /**
+     * Calcula la capacidad total entre dos equipos y las conexiones que la limitan, usando el
+     * ancho de banda de cada conexión activa como capacidad (flujo máximo / corte mínimo, Dinic).
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return El flujo máximo y las conexiones del corte mínimo; si los equipos no están
+     * conectados la capacidad es 0 y el corte está vacío.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o ambos coinciden.
+     * Complejidad Temporal: O(V^2 E) en el peor caso; en la práctica mucho menor.
+     */
+    public FlujoMaximo flujoMaximo(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosCSR(ipOrigen, ipDestino);
+        if (extremos[0] == extremos[1]) {
+            throw new IllegalArgumentException("El origen y el destino deben ser equipos distintos.");
+        }
+        boolean[] ladoOrigen = new boolean[grafoCSR.numVertices()];
+        long capacidad = GraphAlgorithms.maxFlow(grafoCSR, extremos[0], extremos[1], anchosCSR, ladoOrigen);
+
+        List<Conexion> corte = new ArrayList<>();
+        for (int e : GraphAlgorithms.cutEdges(grafoCSR, ladoOrigen)) {
+            corte.add(grafoCSR.edge(e).getElement());
+        }
+        return new FlujoMaximo(ipOrigen, ipDestino, capacidad, corte);
+    }
+
+    /**
+     * Calcula las k rutas sin ciclos de menor latencia entre dos equipos activos (algoritmo de Yen),
+     * ordenadas de menor a mayor latencia. Permite confirmar, antes de un mantenimiento, que
+     * existe una ruta de respaldo que no pasa por un equipo o conexión determinados.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @param k Cantidad máxima de rutas a calcular, entre 1 y MAX_RUTAS_ALTERNATIVAS.
+     * @return Las rutas encontradas; puede haber menos de k si no existen más caminos.
+     * @throws IllegalArgumentException Si k está fuera de rango, alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(k L (V + E) log V) en el peor caso, donde L es la cantidad de saltos
+     * de las rutas; cada búsqueda de desvío está guiada por las distancias exactas al destino.
+     */
+    public List<Ruta> rutasAlternativas(String ipOrigen, String ipDestino, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("La cantidad de rutas debe ser al menos 1.");
+        }
+        if (k > MAX_RUTAS_ALTERNATIVAS) {
+            throw new IllegalArgumentException("La cantidad de rutas no puede superar " + MAX_RUTAS_ALTERNATIVAS + ".");
+        }
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        int[][] caminos = GraphAlgorithms.kShortestPaths(grafoCSR, extremos[0], extremos[1], k);
+
+        List<Ruta> rutas = new ArrayList<>(caminos.length);
+        for (int[] vertices : caminos) {
+            PositionalList<Vertex<Equipo>> camino = new LinkedPositionalList<>();
+            camino.addLast(grafoCSR.vertex(vertices[0]));
+            int latencia = 0;
+            for (int i = 1; i < vertices.length; i++) {
+                latencia += grafoCSR.weight(grafoCSR.index(grafoCSR.getEdge(grafoCSR.vertex(vertices[i - 1]), grafoCSR.vertex(vertices[i]))));
+                camino.addLast(grafoCSR.vertex(vertices[i]));
+            }
+            rutas.add(new Ruta(ipOrigen, ipDestino, camino, latencia));
+        }
+        return rutas;
+    }
+
+    /**
+     * Retorna la jerarquía de contracción de la copia CSR del grafo activo, construyéndola si no existe.
+     *
+     * Complejidad Temporal: O(1) si ya está construida; el preprocesamiento depende de la
+     * topología y en redes poco densas es cercano a O(V log V + E).
+     */
+    private ContractionHierarchy<Equipo> jerarquia() {
+        CSRGraph<Equipo, Conexion> grafo = grafoCSR();
+        if (jerarquia == null) {
+            jerarquia = new ContractionHierarchy<>(grafo);
+        }
+        return jerarquia;
+    }
+
+    /**
+     * @return Cantidad de consultas resueltas con un árbol guardado en la caché de rutas.
+     */
+    public long getAciertosCacheRutas() {
+        return cacheRutas.getAciertos();
+    }
+
+    /**
+     * @return Cantidad de consultas que debieron calcular el árbol de su origen.
+     */
+    public long getFallosCacheRutas() {
+        return cacheRutas.getFallos();
+    }
+
+    /**
+     * Calcula en paralelo las rutas de menor latencia de un lote de pares (origen, destino).
+     * Los pares se agrupan por origen y cada origen resuelve con un único árbol de caminos
+     * mínimos todos sus destinos, repartiendo los orígenes entre los hilos del ForkJoinPool
+     * común sobre la misma copia CSR, de solo lectura, del grafo activo.
+     * Cada ruta se entrega a la salida apenas se calcula, sin acumular los resultados; los
+     * destinos de otra componente se rechazan sin calcular el árbol de su origen.
+     * El estado de la red no debe modificarse mientras el lote está en curso.
+     *
+     * @param pares Pares de direcciones IP; la clave es el origen y el valor el destino.
+     * @param salida Receptor de los resultados. Puede ser invocado desde varios hilos a la vez,
+     *               por lo que debe ser seguro para uso concurrente.
+     * Complejidad Temporal: O(P + S (V + E) log V), donde P es la cantidad de pares y S la de
+     * orígenes distintos, repartida entre los núcleos disponibles.
+     */
+    public void trazarRutas(Collection<? extends Map.Entry<String, String>> pares, Consumer<Ruta> salida) {
+        CSRGraph<Equipo, Conexion> grafo = grafoCSR();
+        HashMap<String, Integer> indice = indiceCSR;
+        IndiceComponentes comp = indiceComponentes();
+        comp.actualizar();
+
+        HashMap<String, List<String>> destinosPorOrigen = new HashMap<>();
+        for (Map.Entry<String, String> par : pares) {
+            destinosPorOrigen.computeIfAbsent(par.getKey(), k -> new ArrayList<>()).add(par.getValue());
+        }
+
+        destinosPorOrigen.entrySet().parallelStream().forEach(grupo -> {
+            String ipOrigen = grupo.getKey();
+            Integer origen = indice.get(ipOrigen);
+            int[] pred = null;
+            int[] d = null;
+
+            for (String ipDestino : grupo.getValue()) {
+                Integer destino = indice.get(ipDestino);
+                if (origen == null || destino == null) {
+                    salida.accept(new Ruta(ipOrigen, ipDestino, "Uno o ambos equipos no se encuentran activos o no existen en la red."));
+                } else if (!comp.alcanzables(ipOrigen, ipDestino)) {
+                    salida.accept(new Ruta(ipOrigen, ipDestino, sinRuta(grafo.vertex(origen).getElement(), grafo.vertex(destino).getElement())));
+                } else {
+                    if (d == null) {
+                        pred = new int[grafo.numVertices()];
+                        d = GraphAlgorithms.shortestPathTree(grafo, origen, pred);
+                    }
+                    salida.accept(new Ruta(ipOrigen, ipDestino, GraphAlgorithms.pathTo(grafo, origen, destino, pred), d[destino]));
+                }
+            }
+        });
+    }
+
+    /**
+     * Activa la tabla de latencias entre todos los pares de equipos activos y la calcula.
+     * A partir de este momento {@link #latencia} y {@link #siguienteSalto} se responden en O(1);
+     * ante un cambio de estado la tabla se descarta y se recalcula en la siguiente consulta.
+     * Si tras un cambio la red activa ya no cabe en la tabla, las consultas vuelven a resolverse
+     * con la caché de rutas hasta que vuelva a caber.
+     *
+     * @throws IllegalStateException Si la red activa es demasiado grande para tabularla; en ese
+     * caso la tabla no se activa.
+     * Complejidad Temporal: O(V (V + E) log V), repartida entre los núcleos disponibles.
+     */
+    public void precalcularLatencias() {
+        tablaLatencias = new TablaLatencias(grafoCSR());
+        usarTablaLatencias = true;
+    }
+
+    /**
+     * Retorna la latencia mínima entre dos equipos activos.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return La suma de latencias de la ruta óptima, en ms.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(1) con la tabla precalculada o el origen en la caché de rutas, O((V + E) log V) si no.
+     */
+    public int latencia(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        TablaLatencias tabla = tablaLatencias();
+        if (tabla != null) {
+            return tabla.latencia(extremos[0], extremos[1]);
+        }
+        return cacheRutas.arbol(grafoCSR, extremos[0]).distancias[extremos[1]];
+    }
+
+    /**
+     * Retorna el equipo al que el origen debe enviar un paquete para seguir la ruta óptima al destino.
+     *
+     * @param ipOrigen Identificador del equipo de origen.
+     * @param ipDestino Identificador del equipo de destino.
+     * @return El siguiente equipo de la ruta (el propio origen si ambos coinciden).
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(1) con la tabla precalculada, O((V + E) log V) sin ella.
+     */
+    public Equipo siguienteSalto(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosAlcanzables(ipOrigen, ipDestino);
+        TablaLatencias tabla = tablaLatencias();
+        if (tabla != null) {
+            return grafoCSR.vertex(tabla.siguienteSalto(extremos[0], extremos[1])).getElement();
+        }
+        PositionalList<Vertex<Equipo>> camino = tracerouteCSR(ipOrigen, ipDestino);
+        Position<Vertex<Equipo>> siguiente = camino.after(camino.first());
+        return (siguiente == null ? camino.first() : siguiente).getElement().getElement();
+    }
+
+    /**
+     * Resuelve los índices de dos equipos en la copia CSR del grafo activo.
+     *
+     * @return Un arreglo con el índice del origen y el del destino.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no existe.
+     */
+    private int[] extremosCSR(String ipOrigen, String ipDestino) {
+        grafoCSR();
+        Integer origen = indiceCSR.get(ipOrigen);
+        Integer destino = indiceCSR.get(ipDestino);
+
+        if (origen == null || destino == null) {
             throw new IllegalArgumentException("Uno o ambos equipos no se encuentran activos o no existen en la red.");
         }
+        return new int[]{origen, destino};
+    }
 
+    /**
+     * Resuelve los índices CSR de dos equipos y verifica, antes de cualquier búsqueda, que
+     * pertenezcan a la misma componente de la red activa.
+     *
+     * @return Un arreglo con el índice del origen y el del destino.
+     * @throws IllegalArgumentException Si alguno de los equipos no está activo o no hay ruta entre ellos.
+     * Complejidad Temporal: O(α(V)) con el índice de componentes vigente.
+     */
+    private int[] extremosAlcanzables(String ipOrigen, String ipDestino) {
+        int[] extremos = extremosCSR(ipOrigen, ipDestino);
+        if (!indiceComponentes().alcanzables(ipOrigen, ipDestino)) {
+            throw new IllegalArgumentException(sinRuta(extremos));
+        }
+        return extremos;
+    }
 
-        try{
-            camino = GraphAlgorithms.shortestPathList(grafoActivo, origenNode, destinoNode);
-        } catch (IllegalArgumentException e) {
-                        throw new IllegalArgumentException("No se encontró una ruta entre el equipo (" + origenNode.getElement().getId() + ") " + origenNode.getElement().getIpAddress() + " y el equipo (" + destinoNode.getElement().getId() + ") " + destinoNode.getElement().getIpAddress() + ".");
+    /**
+     * Arma el mensaje de error para dos equipos activos (índices CSR) que no están conectados.
+     */
+    private String sinRuta(int[] extremos) {
+        return sinRuta(grafoCSR.vertex(extremos[0]).getElement(), grafoCSR.vertex(extremos[1]).getElement());
+    }
+
+    /**
+     * Arma el mensaje de error para dos equipos activos que no están conectados.
+     */
+    private static String sinRuta(Equipo origen, Equipo destino) {
+        return "No se encontró una ruta entre el equipo (" + origen.getId() + ") " + origen.getIpAddress() + " y el equipo (" + destino.getId() + ") " + destino.getIpAddress() + ".";
+    }
+
+    /**
+     * Retorna las componentes conexas de la red activa: su cantidad, el tamaño de cada una y
+     * el índice equipo -> componente. El índice de componentes se mantiene al encender equipos o
+     * conexiones y solo se reconstruye después de apagar alguno; el resultado queda guardado
+     * hasta el siguiente cambio de estado.
+     *
+     * @return Las componentes de la red activa en el estado actual.
+     * Complejidad Temporal: O(1) si ya están calculadas, O(V α(V)) con el índice vigente,
+     * O(V + E α(V)) si hay que reconstruirlo.
+     */
+    public Componentes componentes() {
+        if (componentes == null) {
+            componentes = indiceComponentes().componentes();
         }
+        return componentes;
+    }
 
-        return camino;
+    /**
+     * Retorna el índice de componentes, construyéndolo si no existe.
+     */
+    private IndiceComponentes indiceComponentes() {
+        if (indiceComponentes == null) {
+            indiceComponentes = new IndiceComponentes(red);
+        }
+        return indiceComponentes;
+    }
+
+    /**
+     * Indica si existe alguna ruta activa entre dos equipos, sin calcularla.
+     *
+     * @param ipOrigen Dirección IP de uno de los equipos.
+     * @param ipDestino Dirección IP del otro equipo.
+     * @return true si ambos equipos están encendidos y en la misma componente de la red activa.
+     * Complejidad Temporal: O(α(V)) con el índice vigente, O(V + E α(V)) en caso contrario.
+     */
+    public boolean alcanzables(String ipOrigen, String ipDestino) {
+        return indiceComponentes().alcanzables(ipOrigen, ipDestino);
     }
 
     /**
      * Calcula el Árbol de Expansión Mínima (MST) de la red activa basándose en la latencia de las conexiones.
-     * Utiliza el algoritmo de Kruskal.
+     * Utiliza el bosque incremental, que solo se construye con Kruskal en la primera llamada.
      *
      * @return Una lista de cadenas de texto formateadas describiendo las conexiones del MST y sus latencias.
-          * Complejidad Temporal: O(E log E), donde E es el número de aristas (conexiones activas) en el grafo.
+     * Complejidad Temporal: O(V log V) una vez construido el bosque; O(E log E) en la primera llamada.
      */
     public List<String> MST() {
-        Graph<Equipo, Integer> grafoActivo = crearGrafoActivo();
-        PositionalList<Edge<Integer>> mstEdges = GraphAlgorithms.MST(grafoActivo);
+        return MST(ModoMST.INCREMENTAL);
+    }
 
+    /**
+     * Calcula el Árbol de Expansión Mínima (MST) de la red activa con el algoritmo indicado.
+     *
+     * @param modo Algoritmo a utilizar.
+     * @return Una lista de cadenas de texto formateadas describiendo las conexiones del MST y sus latencias.
+     * Complejidad Temporal: O(E log E) con Kruskal; O(V log V) con el bosque incremental ya construido;
+     * O(E log V) con Borůvka, repartida entre los núcleos disponibles.
+     */
+    public List<String> MST(ModoMST modo) {
         List<String> resultado = new ArrayList<>();
+
+        if (modo == ModoMST.INCREMENTAL) {
+            MSTDinamico bosque = mstDinamico();
+            for (int e : bosque.aristas()) {
+                Conexion c = bosque.conexion(e);
+                resultado.add(lineaMST(c.getSource(), c.getTarget(), bosque.peso(e)));
+            }
+            return resultado;
+        }
+
+        if (modo == ModoMST.PARALELO) {
+            CSRGraph<Equipo, Conexion> grafo = grafoCSR();
+            for (int e : GraphAlgorithms.parallelMST(grafo)) {
+                Conexion c = grafo.edge(e).getElement();
+                resultado.add(lineaMST(c.getSource(), c.getTarget(), grafo.weight(e)));
+            }
+            return resultado;
+        }
+
+        Graph<Equipo, Integer> grafoActivo = grafoActivo();
+        PositionalList<Edge<Integer>> mstEdges = GraphAlgorithms.MST(grafoActivo);
+
         for (Edge<Integer> e : mstEdges) {
             Vertex<Equipo>[] endpoints = grafoActivo.endVertices(e);
-            String linea = endpoints[0].getElement().getId() + " <--> " +
-                    endpoints[1].getElement().getId() + " [Latencia: " + e.getElement() + " ms]\n";
-            resultado.add(linea);
+            resultado.add(lineaMST(endpoints[0].getElement(), endpoints[1].getElement(), e.getElement()));
         }
         return resultado;
     }
 
     /**
-     * Crea y retorna una copia del grafo original que incluye únicamente los equipos y conexiones activos.
-     * Las aristas del nuevo grafo utilizan la latencia (Integer) como peso para los algoritmos.
+     * Da formato a una conexión del MST.
+     */
+    private static String lineaMST(Equipo a, Equipo b, int latencia) {
+        return a.getId() + " <--> " + b.getId() + " [Latencia: " + latencia + " ms]\n";
+    }
+
+    /**
+     * Retorna el bosque de expansión mínima incremental, construyéndolo si no existe.
+     */
+    private MSTDinamico mstDinamico() {
+        if (mstDinamico == null) {
+            mstDinamico = new MSTDinamico(red);
+        }
+        return mstDinamico;
+    }
+
+    /**
+     * Cambia el estado de un equipo. Las copias del grafo activo se descartan; el índice de
+     * componentes y el bosque de expansión mínima incremental, si existen, se actualizan.
+     *
+     * @param ip Dirección IP del equipo.
+     * @param status Nuevo estado del equipo.
+     * @throws IllegalArgumentException Si el equipo no existe en la red.
+     * Complejidad Temporal: O(grado(v)), donde grado(v) es la cantidad de conexiones del equipo.
+     */
+    public void setEstadoEquipo(String ip, boolean status) {
+        Vertex<Equipo> v = vertices.get(ip);
+        if (v == null) {
+            throw new IllegalArgumentException("El equipo " + ip + " no existe en la red.");
+        }
+        v.getElement().setStatus(status);
+        descartarCopias();
+        componentes = null;
+        if (status) {
+            descartarReferencias();
+        }
+        if (mstDinamico != null) {
+            mstDinamico.cambioEquipo(ip);
+        }
+        if (indiceComponentes != null) {
+            if (status) {
+                for (Edge<Conexion> e : red.outgoingEdges(v)) {
+                    indiceComponentes.unir(e.getElement());
+                }
+            } else {
+                indiceComponentes.desactualizar();
+            }
+        }
+    }
+
+    /**
+     * Cambia el estado de la conexión entre dos equipos. Las copias del grafo activo se
+     * descartan; el índice de componentes y el bosque incremental, si existen, se actualizan.
+     *
+     * @param ipOrigen Dirección IP de uno de los extremos.
+     * @param ipDestino Dirección IP del otro extremo.
+     * @param status Nuevo estado de la conexión.
+     * @throws IllegalArgumentException Si alguno de los equipos o la conexión no existen en la red.
+     * Complejidad Temporal: O(1) esperado.
+     */
+    public void setEstadoConexion(String ipOrigen, String ipDestino, boolean status) {
+        Conexion c = conexion(ipOrigen, ipDestino);
+        c.setStatus(status);
+        descartarCopias();
+        componentes = null;
+        if (status) {
+            descartarReferencias();
+        }
+        if (mstDinamico != null) {
+            mstDinamico.cambioConexion(ipOrigen, ipDestino);
+        }
+        if (indiceComponentes != null) {
+            if (status) {
+                indiceComponentes.unir(c);
+            } else {
+                indiceComponentes.desactualizar();
+            }
+        }
+    }
+
+    /**
+     * Cambia la latencia de la conexión entre dos equipos. Las copias del grafo activo se
+     * descartan y el bosque de expansión mínima incremental, si existe, se actualiza.
+     *
+     * @param ipOrigen Dirección IP de uno de los extremos.
+     * @param ipDestino Dirección IP del otro extremo.
+     * @param latencia Nueva latencia de la conexión, en ms.
+     * @throws IllegalArgumentException Si alguno de los equipos o la conexión no existen en la red.
+     * Complejidad Temporal: O(1) esperado; O(V' + E') para el bosque incremental, con V' y E' los del árbol más chico que toca.
+     */
+    public void setLatenciaConexion(String ipOrigen, String ipDestino, int latencia) {
+        Conexion c = conexion(ipOrigen, ipDestino);
+        if (latencia < c.getLatencia()) {
+            descartarReferencias();
+        }
+        c.setLatencia(latencia);
+        descartarCopias();
+        if (mstDinamico != null) {
+            mstDinamico.cambioConexion(ipOrigen, ipDestino);
+        }
+    }
+
+    /**
+     * Busca la conexión entre dos equipos de la red.
+     *
+     * @throws IllegalArgumentException Si alguno de los equipos o la conexión no existen en la red.
+     */
+    private Conexion conexion(String ipOrigen, String ipDestino) {
+        Vertex<Equipo> v1 = vertices.get(ipOrigen);
+        Vertex<Equipo> v2 = vertices.get(ipDestino);
+        Edge<Conexion> e = (v1 == null || v2 == null) ? null : red.getEdge(v1, v2);
+        if (e == null) {
+            throw new IllegalArgumentException("No existe una conexión entre " + ipOrigen + " y " + ipDestino + ".");
+        }
+        return e.getElement();
+    }
+
+    /**
+     * Descarta el grafo activo en caché y el bosque de expansión mínima incremental para que se
+     * reconstruyan en la próxima consulta.
+     * Debe usarse si el estado de equipos o conexiones se modifica por fuera de esta clase.
+     */
+    public void invalidarGrafoActivo() {
+        mstDinamico = null;
+        indiceComponentes = null;
+        componentes = null;
+        descartarCopias();
+        descartarReferencias();
+    }
+
+    /**
+     * Descarta las estructuras derivadas del grafo activo que no pueden actualizarse en el lugar.
+     */
+    private void descartarCopias() {
+        grafoActivo = null;
+        mapaActivos = null;
+        grafoCSR = null;
+        indiceCSR = null;
+        anchosCSR = null;
+        erroresCSR = null;
+        tablaLatencias = null;
+        jerarquia = null;
+        cacheRutas.limpiar();
+    }
+
+    /**
+     * Descarta las distancias de los equipos de referencia; se usa cuando un cambio puede
+     * acortar alguna ruta (un equipo o conexión que se enciende, una latencia que baja).
+     */
+    private void descartarReferencias() {
+        referencias = null;
+        grafoReferencias = null;
+    }
+
+    /**
+     * Retorna la tabla de latencias del grafo activo, calculándola si no existe.
+     *
+     * @return La tabla, o null si no fue solicitada o la red activa supera TablaLatencias.MAX_VERTICES.
+     */
+    private TablaLatencias tablaLatencias() {
+        CSRGraph<Equipo, Conexion> grafo = grafoCSR();
+        if (tablaLatencias == null && usarTablaLatencias && grafo.numVertices() <= TablaLatencias.MAX_VERTICES) {
+            tablaLatencias = new TablaLatencias(grafo);
+        }
+        return tablaLatencias;
+    }
+
+    /**
+     * Retorna la copia compacta (CSR) del grafo activo, construyéndola si no existe.
+     * Los pesos de las aristas son las latencias de las conexiones.
+     *
+     * @return Un grafo CSR no dirigido con los equipos y conexiones activos.
+     * Complejidad Temporal: O(1) si ya está construido, O(V + E) en caso contrario.
+     */
+    private CSRGraph<Equipo, Conexion> grafoCSR() {
+        if (grafoCSR == null) {
+            grafoCSR = CSRGraph.of(red, false, Equipo::isStatus, Conexion::isStatus, Conexion::getLatencia);
+            anchosCSR = grafoCSR.edgeValues(Conexion::getBandwidth);
+            erroresCSR = grafoCSR.edgeDoubleValues(Conexion::getErrorRate);
+            indiceCSR = new HashMap<>(grafoCSR.numVertices() * 2);
+            for (int i = 0; i < grafoCSR.numVertices(); i++) {
+                indiceCSR.put(grafoCSR.vertex(i).getElement().getIpAddress(), i);
+            }
+        }
+        return grafoCSR;
+    }
+
+    /**
+     * Retorna el grafo activo en caché, construyéndolo si no existe.
      *
      * @return Un grafo no dirigido con los elementos activos de la red.
-          * Complejidad Temporal: O(V + E), donde V es el número de vértices y E el número de aristas; requerida para recorrer y filtrar todos los vértices y aristas del grafo original.
+     * Complejidad Temporal: O(1) si ya está construido, O(V + E) en caso contrario.
      */
-    private Graph<Equipo, Integer> crearGrafoActivo() {
-        Graph<Equipo, Integer> grafoActivo = new AdjacencyMapGraph<>(false);
-        TreeMap<String, Vertex<Equipo>> mapaActivos = new TreeMap<>();
+    private Graph<Equipo, Integer> grafoActivo() {
+        if (grafoActivo == null) {
+            crearGrafoActivo();
+        }
+        return grafoActivo;
+    }
+
+    /**
+     * Crea la copia del grafo original que incluye únicamente los equipos y conexiones activos.
+     * Las aristas del nuevo grafo utilizan la latencia (Integer) como peso para los algoritmos.
+     * Complejidad Temporal: O(V + E), donde V es el número de vértices y E el número de aristas; requerida para recorrer y filtrar todos los vértices y aristas del grafo original.
+     */
+    private void crearGrafoActivo() {
+        grafoActivo = new AdjacencyMapGraph<>(false);
+        mapaActivos = new HashMap<>(vertices.size() * 2);
 
         for (Vertex<Equipo> v : red.vertices()) {
             if (v.getElement().isStatus()) {
@@ -149,6 +910,5 @@ public class Logica {
                 }
             }
         }
-        return grafoActivo;
     }
 }
\ No newline at end of file
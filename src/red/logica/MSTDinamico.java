@@ -0,0 +1,413 @@
+package red.logica;
+
+import net.datastructures.CSRGraph;
+import net.datastructures.Edge;
+import net.datastructures.Graph;
+import net.datastructures.UnionFind;
+import red.modelo.Conexion;
+import red.modelo.Equipo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Bosque de expansión mínima de la red activa que se mantiene ante cambios puntuales.
+ * Trabaja sobre una copia CSR de toda la red (activa o no), de modo que los índices de
+ * equipos y conexiones no cambian al encender o apagar elementos.
+ *
+ * Las búsquedas en el bosque avanzan a la vez desde los dos extremos de la arista afectada y
+ * se detienen en cuanto se encuentran o uno de los dos lados se agota, así que solo recorren
+ * (aproximadamente) el árbol más chico de los dos. Al activarse una conexión se busca el camino
+ * entre sus extremos: si no existe la arista se agrega, y si existe se reemplaza la arista más
+ * pesada del ciclo cuando la nueva es más liviana. Al desactivarse una arista del bosque se
+ * busca, solo entre las conexiones del lado más chico, la más liviana que vuelva a unir las
+ * dos partes. Los arreglos auxiliares se reutilizan entre llamadas y se marcan con un sello
+ * que cambia en cada búsqueda, de modo que no hace falta limpiarlos.
+ */
+class MSTDinamico {
+
+    private static final int CONECTADOS = 0;
+    private static final int PRIMERO_COMPLETO = 1;
+    private static final int SEGUNDO_COMPLETO = 2;
+
+    private final CSRGraph<Equipo, Conexion> grafo;
+    private final HashMap<String, Integer> indice;
+    private final int[] pesos;
+    private final boolean[] activa;
+    private final boolean[] enArbol;
+    private long pesoTotal;
+    private int cantidadAristas;
+
+    // Auxiliares de las búsquedas: sello de la última búsqueda que visitó cada vértice, arista
+    // del bosque por la que se llegó a él, y cola compartida por los dos lados (el lado del
+    // primer extremo crece desde el inicio del arreglo y el del segundo desde el final)
+    private final int[] visita;
+    private final int[] aristaPadre;
+    private final int[] cola;
+    private int sello;
+
+    // Resultado de la última búsqueda: arista por la que se encontraron los dos lados (-1 si no
+    // se encontraron) y, si no se encontraron, el sello y el tramo de cola del lado agotado
+    private int aristaEncuentro;
+    private int selloAgotado;
+    private int inicioAgotado;
+    private int finAgotado;
+
+    /**
+     * Construye el bosque de expansión mínima inicial con Kruskal.
+     *
+     * @param red Grafo completo de la red.
+     * Complejidad Temporal: O(E log E).
+     */
+    MSTDinamico(Graph<Equipo, Conexion> red) {
+        grafo = CSRGraph.of(red, false, Conexion::getLatencia);
+        int n = grafo.numVertices();
+        int m = grafo.numEdges();
+        indice = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indice.put(grafo.vertex(i).getElement().getIpAddress(), i);
+        }
+        pesos = grafo.edgeValues(Conexion::getLatencia);
+        activa = new boolean[m];
+        enArbol = new boolean[m];
+        visita = new int[n];
+        aristaPadre = new int[n];
+        cola = new int[n];
+
+        int cantidad = 0;
+        for (int e = 0; e < m; e++) {
+            activa[e] = estaActiva(e);
+            if (activa[e]) {
+                cantidad++;
+            }
+        }
+        int[] candidatas = new int[cantidad];
+        int k = 0;
+        for (int e = 0; e < m; e++) {
+            if (activa[e]) {
+                candidatas[k++] = e;
+            }
+        }
+        ordenarPorPeso(candidatas);
+
+        UnionFind componentes = new UnionFind(n);
+        for (int e : candidatas) {
+            if (componentes.union(grafo.source(e), grafo.target(e))) {
+                agregar(e);
+            }
+        }
+    }
+
+    /**
+     * Vuelve a leer el estado de un equipo y actualiza el bosque con sus conexiones. Primero
+     * retira todas las conexiones que dejaron de estar activas y recién después vuelve a unir
+     * los árboles que colgaban del equipo, para no elegir como reemplazo otra conexión suya.
+     *
+     * @param ip Dirección IP del equipo modificado.
+     * Complejidad Temporal: O(grado(v) (V' + E')), con V' y E' los vértices y aristas del
+     * lado más chico de cada búsqueda.
+     */
+    void cambioEquipo(String ip) {
+        Integer v = indice.get(ip);
+        if (v == null) {
+            return;
+        }
+        int[] vecinos = new int[grafo.rowEnd(v) - grafo.rowStart(v)];
+        int cantidad = 0;
+        for (int k = grafo.rowStart(v); k < grafo.rowEnd(v); k++) {
+            int e = grafo.slotEdge(k);
+            if (activa[e] && !estaActiva(e)) {
+                activa[e] = false;
+                if (enArbol[e]) {
+                    quitar(e);
+                    vecinos[cantidad++] = grafo.slotTarget(k);
+                }
+            }
+        }
+        // cada vecino quedó en un árbol distinto: se unen todos contra un ancla, que se cambia
+        // cuando su árbol resulta ser una componente completa de la red
+        int ancla = cantidad > 0 ? vecinos[0] : -1;
+        for (int i = 1; i < cantidad; i++) {
+            if (reconectar(ancla, vecinos[i]) == PRIMERO_COMPLETO) {
+                ancla = vecinos[i];
+            }
+        }
+        for (int k = grafo.rowStart(v); k < grafo.rowEnd(v); k++) {
+            int e = grafo.slotEdge(k);
+            if (!activa[e] && estaActiva(e)) {
+                activar(e);
+            }
+        }
+    }
+
+    /**
+     * Vuelve a leer el estado y la latencia de la conexión entre dos equipos y actualiza el bosque.
+     *
+     * @param ipOrigen Dirección IP de uno de los extremos.
+     * @param ipDestino Dirección IP del otro extremo.
+     * Complejidad Temporal: O(V' + E'), con V' y E' los vértices y aristas del lado más chico.
+     */
+    void cambioConexion(String ipOrigen, String ipDestino) {
+        Integer a = indice.get(ipOrigen);
+        Integer b = indice.get(ipDestino);
+        if (a == null || b == null) {
+            return;
+        }
+        Edge<Conexion> arista = grafo.getEdge(grafo.vertex(a), grafo.vertex(b));
+        if (arista == null) {
+            return;
+        }
+        int e = grafo.index(arista);
+        int latencia = arista.getElement().getLatencia();
+        if (latencia != pesos[e]) {
+            if (activa[e]) {
+                desactivar(e);
+            }
+            pesos[e] = latencia;
+        }
+        actualizar(e);
+    }
+
+    /**
+     * @return Los índices de las aristas del bosque, ordenados por latencia.
+     */
+    int[] aristas() {
+        int[] resultado = new int[cantidadAristas];
+        int k = 0;
+        for (int e = 0; e < enArbol.length; e++) {
+            if (enArbol[e]) {
+                resultado[k++] = e;
+            }
+        }
+        ordenarPorPeso(resultado);
+        return resultado;
+    }
+
+    /**
+     * @return La conexión asociada a la arista de índice e.
+     */
+    Conexion conexion(int e) {
+        return grafo.edge(e).getElement();
+    }
+
+    /**
+     * @return La latencia con la que la arista de índice e participa del bosque.
+     */
+    int peso(int e) {
+        return pesos[e];
+    }
+
+    /**
+     * @return La suma de latencias de las aristas del bosque.
+     */
+    long getPesoTotal() {
+        return pesoTotal;
+    }
+
+    /**
+     * Ordena índices de aristas por peso y, a igual peso, por índice, empaquetando ambos
+     * valores en un long para ordenar un arreglo primitivo.
+     */
+    private void ordenarPorPeso(int[] aristas) {
+        long[] claves = new long[aristas.length];
+        for (int i = 0; i < aristas.length; i++) {
+            claves[i] = ((long) pesos[aristas[i]] << 32) | aristas[i];
+        }
+        Arrays.sort(claves);
+        for (int i = 0; i < aristas.length; i++) {
+            aristas[i] = (int) claves[i];
+        }
+    }
+
+    private boolean estaActiva(int e) {
+        Conexion c = grafo.edge(e).getElement();
+        return c.isStatus() && c.getSource().isStatus() && c.getTarget().isStatus();
+    }
+
+    private void actualizar(int e) {
+        boolean nuevo = estaActiva(e);
+        if (nuevo && !activa[e]) {
+            activar(e);
+        } else if (!nuevo && activa[e]) {
+            desactivar(e);
+        }
+    }
+
+    private void agregar(int e) {
+        enArbol[e] = true;
+        pesoTotal += pesos[e];
+        cantidadAristas++;
+    }
+
+    private void quitar(int e) {
+        enArbol[e] = false;
+        pesoTotal -= pesos[e];
+        cantidadAristas--;
+    }
+
+    /**
+     * Incorpora una arista activa: la agrega si une dos árboles distintos, o reemplaza a la
+     * arista más pesada del ciclo que cierra si es más liviana que ella.
+     */
+    private void activar(int e) {
+        activa[e] = true;
+        int u = grafo.source(e);
+        int v = grafo.target(e);
+        if (!buscar(u, v)) {
+            agregar(e);
+            return;
+        }
+        if (aristaEncuentro == -1) {
+            return;                     // un lazo nunca forma parte del bosque
+        }
+        int maxima = aristaEncuentro;
+        maxima = masPesadaHastaRaiz(grafo.source(aristaEncuentro), maxima);
+        maxima = masPesadaHastaRaiz(grafo.target(aristaEncuentro), maxima);
+        if (pesos[e] < pesos[maxima]) {
+            quitar(maxima);
+            agregar(e);
+        }
+    }
+
+    /**
+     * Retira una arista: si pertenecía al bosque, busca la arista activa más liviana que
+     * reconecte las dos partes.
+     */
+    private void desactivar(int e) {
+        activa[e] = false;
+        if (!enArbol[e]) {
+            return;
+        }
+        quitar(e);
+        reconectar(grafo.source(e), grafo.target(e));
+    }
+
+    /**
+     * Vuelve a unir los árboles de a y b. Mientras sigan separados, agrega la arista activa más
+     * liviana que sale del lado más chico; cada una es segura por la propiedad de corte, aunque
+     * llegue a un tercer árbol.
+     *
+     * @return CONECTADOS si a y b quedaron en el mismo árbol; si no, PRIMERO_COMPLETO o
+     * SEGUNDO_COMPLETO según cuál de los dos árboles resultó ser una componente completa.
+     */
+    private int reconectar(int a, int b) {
+        while (!buscar(a, b)) {
+            int reemplazo = -1;
+            for (int i = inicioAgotado; i < finAgotado; i++) {
+                int x = cola[i];
+                for (int k = grafo.rowStart(x); k < grafo.rowEnd(x); k++) {
+                    int f = grafo.slotEdge(k);
+                    if (activa[f] && !enArbol[f] && visita[grafo.slotTarget(k)] != selloAgotado
+                            && (reemplazo == -1 || pesos[f] < pesos[reemplazo])) {
+                        reemplazo = f;
+                    }
+                }
+            }
+            if (reemplazo == -1) {
+                return visita[a] == selloAgotado ? PRIMERO_COMPLETO : SEGUNDO_COMPLETO;
+            }
+            agregar(reemplazo);
+        }
+        return CONECTADOS;
+    }
+
+    /**
+     * Busca en anchura, solo por aristas del bosque, desde u y desde v a la vez, expandiendo un
+     * vértice de cada lado por turno. Si los lados se encuentran deja en aristaEncuentro la
+     * arista que los une y en aristaPadre el camino de cada lado hasta su raíz; si no, deja en
+     * selloAgotado, inicioAgotado y finAgotado el lado que se recorrió completo.
+     *
+     * @return true si u y v están en el mismo árbol.
+     */
+    private boolean buscar(int u, int v) {
+        if (sello > Integer.MAX_VALUE - 2) {
+            Arrays.fill(visita, 0);
+            sello = 0;
+        }
+        int selloU = ++sello;
+        int selloV = ++sello;
+        int n = cola.length;
+        int inicioU = 0;
+        int finU = 0;
+        int inicioV = n;
+        int finV = n;
+        visita[u] = selloU;
+        aristaPadre[u] = -1;
+        cola[finU++] = u;
+        if (u == v) {
+            aristaEncuentro = -1;
+            return true;
+        }
+        visita[v] = selloV;
+        aristaPadre[v] = -1;
+        cola[--finV] = v;
+
+        while (true) {
+            if (inicioU == finU) {
+                selloAgotado = selloU;
+                inicioAgotado = 0;
+                finAgotado = finU;
+                aristaEncuentro = -1;
+                return false;
+            }
+            int x = cola[inicioU++];
+            for (int k = grafo.rowStart(x); k < grafo.rowEnd(x); k++) {
+                int f = grafo.slotEdge(k);
+                if (!enArbol[f] || f == aristaPadre[x]) {
+                    continue;
+                }
+                int y = grafo.slotTarget(k);
+                if (visita[y] == selloV) {
+                    aristaEncuentro = f;
+                    return true;
+                }
+                visita[y] = selloU;
+                aristaPadre[y] = f;
+                cola[finU++] = y;
+            }
+
+            if (inicioV == finV) {
+                selloAgotado = selloV;
+                inicioAgotado = finV;
+                finAgotado = n;
+                aristaEncuentro = -1;
+                return false;
+            }
+            x = cola[--inicioV];
+            for (int k = grafo.rowStart(x); k < grafo.rowEnd(x); k++) {
+                int f = grafo.slotEdge(k);
+                if (!enArbol[f] || f == aristaPadre[x]) {
+                    continue;
+                }
+                int y = grafo.slotTarget(k);
+                if (visita[y] == selloU) {
+                    aristaEncuentro = f;
+                    return true;
+                }
+                visita[y] = selloV;
+                aristaPadre[y] = f;
+                cola[--finV] = y;
+            }
+        }
+    }
+
+    /**
+     * Sube por aristaPadre desde x hasta la raíz de su lado de la última búsqueda.
+     *
+     * @return La más pesada entre maxima y las aristas recorridas.
+     */
+    private int masPesadaHastaRaiz(int x, int maxima) {
+        while (aristaPadre[x] != -1) {
+            int f = aristaPadre[x];
+            if (pesos[f] > pesos[maxima]) {
+                maxima = f;
+            }
+            x = otroExtremo(f, x);
+        }
+        return maxima;
+    }
+
+    private int otroExtremo(int e, int x) {
+        return grafo.source(e) == x ? grafo.target(e) : grafo.source(e);
+    }
+}
@@ -0,0 +1,13 @@
+package red.logica;
+
+/**
+ * Algoritmos disponibles para calcular el árbol de expansión mínima de la red activa.
+ */
+public enum ModoMST {
+    /** Kruskal recalculado desde cero sobre el grafo activo. */
+    KRUSKAL,
+    /** Bosque mantenido entre consultas y actualizado ante cada cambio de estado o latencia. */
+    INCREMENTAL,
+    /** Borůvka sobre la copia CSR del grafo activo, recorriendo las aristas en paralelo. */
+    PARALELO
+}
@@ -0,0 +1,37 @@
+package red.logica;
+
+/**
+ * Algoritmos disponibles para calcular la ruta de un traceroute.
+ */
+public enum ModoTraceroute {
+    /** Dijkstra desde el origen, detenido al fijar la distancia al destino. */
+    DIJKSTRA,
+    /** Dijkstra bidireccional: avanza desde el origen y desde el destino hasta encontrarse. */
+    BIDIRECCIONAL,
+    /**
+     * Dijkstra sobre índices de vértices, usando la copia compacta (CSR) del grafo activo.
+     * Los árboles de caminos mínimos de los últimos orígenes se conservan en una caché LRU.
+     */
+    CSR,
+    /**
+     * A* sobre la copia CSR, guiado por cotas inferiores de latencia obtenidas de las
+     * distancias a unos pocos equipos de referencia (ALT).
+     */
+    ALT,
+    /**
+     * Ruta de mayor ancho de banda: maximiza el ancho de banda de la conexión más angosta y,
+     * entre las rutas con ese cuello de botella, elige la de menor latencia.
+     */
+    ANCHO_DE_BANDA,
+    /**
+     * Ruta más confiable: maximiza la probabilidad de que el paquete no se pierda, es decir,
+     * el producto de (1 - tasa de error) de las conexiones recorridas.
+     */
+    CONFIABLE,
+    /**
+     * Búsqueda bidireccional ascendente sobre una jerarquía de contracción de la copia CSR,
+     * con atajos que se expanden en la ruta devuelta. El preprocesamiento se rehace tras
+     * cada cambio de la red.
+     */
+    CH
+}
@@ -0,0 +1,104 @@
+package red.logica;
+
+import net.datastructures.PositionalList;
+import net.datastructures.Vertex;
+import red.modelo.Equipo;
+
+/**
+ * Resultado de una ruta calculada en lote: el camino encontrado y su latencia,
+ * o el motivo por el que no pudo calcularse.
+ */
+public class Ruta {
+    private final String ipOrigen;
+    private final String ipDestino;
+    private final PositionalList<Vertex<Equipo>> camino;
+    private final int latencia;
+    private final double confiabilidad;
+    private final String error;
+
+    /**
+     * Crea una ruta encontrada.
+     */
+    Ruta(String ipOrigen, String ipDestino, PositionalList<Vertex<Equipo>> camino, int latencia) {
+        this(ipOrigen, ipDestino, camino, latencia, Double.NaN);
+    }
+
+    /**
+     * Crea una ruta encontrada junto con la probabilidad de que un paquete la recorra sin perderse.
+     */
+    Ruta(String ipOrigen, String ipDestino, PositionalList<Vertex<Equipo>> camino, int latencia, double confiabilidad) {
+        this.ipOrigen = ipOrigen;
+        this.ipDestino = ipDestino;
+        this.camino = camino;
+        this.latencia = latencia;
+        this.confiabilidad = confiabilidad;
+        this.error = null;
+    }
+
+    /**
+     * Crea una ruta fallida con el mensaje de error correspondiente.
+     */
+    Ruta(String ipOrigen, String ipDestino, String error) {
+        this.ipOrigen = ipOrigen;
+        this.ipDestino = ipDestino;
+        this.camino = null;
+        this.latencia = -1;
+        this.confiabilidad = Double.NaN;
+        this.error = error;
+    }
+
+    public String getIpOrigen() {
+        return ipOrigen;
+    }
+
+    public String getIpDestino() {
+        return ipDestino;
+    }
+
+    /**
+     * @return true si se encontró un camino entre origen y destino.
+     */
+    public boolean isEncontrada() {
+        return error == null;
+    }
+
+    /**
+     * @return El camino desde el origen hasta el destino, o null si no se encontró.
+     */
+    public PositionalList<Vertex<Equipo>> getCamino() {
+        return camino;
+    }
+
+    /**
+     * @return La latencia total del camino en ms, o -1 si no se encontró.
+     */
+    public int getLatencia() {
+        return latencia;
+    }
+
+    /**
+     * @return La probabilidad de que un paquete recorra la ruta sin perderse (producto de
+     * 1 - errorRate de sus conexiones), o NaN si no fue calculada.
+     */
+    public double getConfiabilidad() {
+        return confiabilidad;
+    }
+
+    /**
+     * @return El motivo por el que no se encontró la ruta, o null si se encontró.
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "Ruta{" +
+                "ipOrigen='" + ipOrigen + '\'' +
+                ", ipDestino='" + ipDestino + '\'' +
+                ", latencia=" + latencia +
+                ", confiabilidad=" + confiabilidad +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package red.logica;
+
+import net.datastructures.CSRGraph;
+import net.datastructures.GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Tabla precalculada de latencias mínimas entre todos los pares de equipos de un grafo CSR.
+ * Guarda, en dos arreglos de n x n enteros, la distancia y el siguiente salto de cada par,
+ * de modo que ambas consultas se responden en O(1).
+ */
+class TablaLatencias {
+
+    /** Cantidad máxima de vértices admitida (la tabla ocupa 8·n² bytes). */
+    static final int MAX_VERTICES = 10_000;
+
+    private static final int DESCONOCIDO = -2;
+
+    private final int n;
+    private final int[] distancias;
+    private final int[] siguientes;
+
+    /**
+     * Calcula la tabla ejecutando Dijkstra desde cada vértice, en paralelo entre orígenes.
+     *
+     * @param grafo Grafo CSR sobre el que se calculan las latencias.
+     * @throws IllegalStateException Si el grafo supera MAX_VERTICES vértices.
+     * Complejidad Temporal: O(V (V + E) log V), repartida entre los núcleos disponibles.
+     */
+    TablaLatencias(CSRGraph<?, ?> grafo) {
+        n = grafo.numVertices();
+        if (n > MAX_VERTICES) {
+            throw new IllegalStateException("La red activa tiene " + n + " equipos; la tabla de latencias admite hasta " + MAX_VERTICES + ".");
+        }
+        distancias = new int[n * n];
+        siguientes = new int[n * n];
+        Arrays.fill(siguientes, DESCONOCIDO);
+
+        IntStream.range(0, n).parallel().forEach(origen -> {
+            int[] pred = new int[n];
+            int[] d = GraphAlgorithms.shortestPathTree(grafo, origen, pred);
+            System.arraycopy(d, 0, distancias, origen * n, n);
+            completarSiguientes(origen, pred);
+        });
+    }
+
+    /**
+     * Deriva el siguiente salto desde el origen hacia cada destino a partir del árbol de
+     * caminos mínimos, subiendo por los predecesores y reutilizando lo ya calculado.
+     */
+    private void completarSiguientes(int origen, int[] pred) {
+        int base = origen * n;
+        int[] pila = new int[n];
+        for (int destino = 0; destino < n; destino++) {
+            int largo = 0;
+            int w = destino;
+            while (siguientes[base + w] == DESCONOCIDO) {
+                if (w == origen) {
+                    siguientes[base + w] = origen;
+                } else if (pred[w] == -1) {
+                    siguientes[base + w] = -1;           // inalcanzable
+                } else if (pred[w] == origen) {
+                    siguientes[base + w] = w;
+                } else {
+                    pila[largo++] = w;
+                    w = pred[w];
+                }
+            }
+            int salto = siguientes[base + w];
+            while (largo > 0) {
+                siguientes[base + pila[--largo]] = salto;
+            }
+        }
+    }
+
+    /**
+     * @return La latencia mínima entre los vértices a y b, o Integer.MAX_VALUE si no hay ruta.
+     */
+    int latencia(int a, int b) {
+        return distancias[a * n + b];
+    }
+
+    /**
+     * @return El índice del vértice que sigue a a en la ruta mínima hacia b, a si a == b,
+     * o -1 si no hay ruta.
+     */
+    int siguienteSalto(int a, int b) {
+        return siguientes[a * n + b];
+    }
+}
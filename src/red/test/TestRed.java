@@ -7,14 +7,36 @@ import org.junit.jupiter.api.DisplayName;
 
 import red.datos.CargarParametros;
 import red.datos.Dato;
+import red.logica.Componentes;
+import red.logica.FlujoMaximo;
 import red.logica.Logica;
+import red.logica.ModoMST;
+import red.logica.ModoTraceroute;
+import red.logica.Ruta;
+import net.datastructures.AdjacencyMapGraph;
+import net.datastructures.CSRGraph;
+import net.datastructures.ContractionHierarchy;
+import net.datastructures.Edge;
+import net.datastructures.Graph;
+import net.datastructures.GraphAlgorithms;
+import net.datastructures.Landmarks;
 import net.datastructures.PositionalList;
 import net.datastructures.Vertex;
+import red.modelo.Computadora;
 import red.modelo.Conexion;
 import red.modelo.Equipo;
+import red.modelo.Router;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
 import java.util.TreeMap;
 
 /**
@@ -157,4 +179,490 @@ class LogicaTest {
             assertTrue(true);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Caso 6: Traceroute bidireccional coincide con Dijkstra")
+    void testTracerouteBidireccional() {
+        PositionalList<Vertex<Equipo>> dijkstra = logica.traceroute("10.0.3.51", "10.0.2.20", ModoTraceroute.DIJKSTRA);
+        PositionalList<Vertex<Equipo>> bidireccional = logica.traceroute("10.0.3.51", "10.0.2.20", ModoTraceroute.BIDIRECCIONAL);
+
+        assertEquals(dijkstra.size(), bidireccional.size(),
+                "Ambos modos deben encontrar una ruta de la misma cantidad de saltos.");
+        assertEquals("PC16", bidireccional.first().getElement().getElement().getId());
+        assertEquals("PC12", bidireccional.last().getElement().getElement().getId());
+    }
+
+    @Test
+    @DisplayName("Caso 7: Caché de rutas reutiliza el árbol del mismo origen")
+    void testCacheRutas() {
+        logica.traceroute("172.16.0.5", "192.168.5.0");
+        logica.traceroute("172.16.0.5", "10.0.2.20");
+
+        assertEquals(1, logica.getFallosCacheRutas(), "Solo la primera consulta debe calcular el árbol.");
+        assertEquals(1, logica.getAciertosCacheRutas(), "La segunda consulta debe reutilizar el árbol.");
+
+        logica.setEstadoEquipo("10.0.2.20", false);
+        assertThrows(IllegalArgumentException.class, () -> logica.traceroute("172.16.0.5", "10.0.2.20", ModoTraceroute.CSR),
+                "Tras apagar el destino la caché no debe devolver la ruta anterior.");
+        logica.setEstadoEquipo("10.0.2.20", true);
+    }
+
+    @Test
+    @DisplayName("Caso 8: Componentes conexas se actualizan al cortar una conexión")
+    void testComponentes() {
+        Componentes antes = logica.componentes();
+        assertTrue(logica.alcanzables("10.0.3.51", "10.0.2.20"), "PC16 y PC12 están conectadas en la red original.");
+
+        logica.setEstadoConexion("10.0.3.51", "10.0.3.1", false);
+        Componentes despues = logica.componentes();
+
+        assertEquals(antes.getCantidad() + 1, despues.getCantidad(), "Cortar el único enlace de PC16 debe aislarla.");
+        assertEquals(1, despues.getTamanios()[despues.componente("10.0.3.51")], "PC16 debe quedar sola en su componente.");
+        assertFalse(logica.alcanzables("10.0.3.51", "10.0.2.20"), "PC16 ya no debe alcanzar a PC12.");
+        assertFalse(logica.alcanzables("192.168.1.0", "192.168.1.0"), "Un equipo apagado no pertenece a ninguna componente.");
+        logica.setEstadoConexion("10.0.3.51", "10.0.3.1", true);
+    }
+
+    @Test
+    @DisplayName("Caso 9: Rutas alternativas ordenadas por latencia")
+    void testRutasAlternativas() {
+        List<Ruta> rutas = logica.rutasAlternativas("10.0.3.51", "10.0.2.20", 3);
+
+        assertFalse(rutas.isEmpty(), "Debe existir al menos la ruta óptima.");
+        assertEquals(logica.latencia("10.0.3.51", "10.0.2.20"), rutas.get(0).getLatencia(),
+                "La primera ruta debe ser la de menor latencia.");
+        for (int i = 1; i < rutas.size(); i++) {
+            assertTrue(rutas.get(i - 1).getLatencia() <= rutas.get(i).getLatencia(),
+                    "Las rutas deben estar ordenadas de menor a mayor latencia.");
+        }
+    }
+
+    @Test
+    @DisplayName("Caso 19: La cantidad de rutas alternativas tiene un máximo")
+    void testRutasAlternativasMaximo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> logica.rutasAlternativas("10.0.3.51", "10.0.2.20", Logica.MAX_RUTAS_ALTERNATIVAS + 1),
+                "Más rutas que el máximo deben rechazarse.");
+        assertThrows(IllegalArgumentException.class,
+                () -> logica.rutasAlternativas("10.0.3.51", "10.0.2.20", 2_000_000_000),
+                "Una cantidad enorme debe rechazarse sin reservar memoria para ella.");
+        assertThrows(IllegalArgumentException.class,
+                () -> logica.rutasAlternativas("10.0.3.51", "10.0.2.20", 0),
+                "La cantidad de rutas debe ser positiva.");
+
+        List<Ruta> rutas = logica.rutasAlternativas("10.0.3.51", "10.0.2.20", Logica.MAX_RUTAS_ALTERNATIVAS);
+        assertTrue(rutas.size() <= Logica.MAX_RUTAS_ALTERNATIVAS, "No puede haber más rutas que las pedidas.");
+        List<Ruta> primeras = logica.rutasAlternativas("10.0.3.51", "10.0.2.20", 3);
+        for (int i = 0; i < primeras.size(); i++) {
+            assertEquals(primeras.get(i).getLatencia(), rutas.get(i).getLatencia(),
+                    "Pedir más rutas no debe cambiar las primeras.");
+        }
+    }
+
+    @Test
+    @DisplayName("Caso 10: Rutas de Pareto entre latencia y confiabilidad")
+    void testRutasLatenciaConfiabilidad() {
+        List<Ruta> rutas = logica.rutasLatenciaConfiabilidad("10.0.3.51", "10.0.2.20");
+
+        assertFalse(rutas.isEmpty(), "Debe existir al menos una ruta.");
+        assertEquals(logica.latencia("10.0.3.51", "10.0.2.20"), rutas.get(0).getLatencia(),
+                "La primera ruta debe ser la de menor latencia.");
+        assertEquals(logica.confiabilidad("10.0.3.51", "10.0.2.20"), rutas.get(rutas.size() - 1).getConfiabilidad(), 1e-9,
+                "La última ruta debe ser la más confiable.");
+        for (int i = 1; i < rutas.size(); i++) {
+            assertTrue(rutas.get(i - 1).getLatencia() < rutas.get(i).getLatencia()
+                            && rutas.get(i - 1).getConfiabilidad() < rutas.get(i).getConfiabilidad(),
+                    "Cada ruta debe ser más lenta y más confiable que la anterior.");
+        }
+    }
+
+    @Test
+    @DisplayName("Caso 11: Flujo máximo igual a la capacidad del corte mínimo")
+    void testFlujoMaximo() {
+        FlujoMaximo flujo = logica.flujoMaximo("10.0.3.51", "10.0.2.20");
+
+        long capacidadCorte = 0;
+        for (Conexion c : flujo.getCorte()) {
+            capacidadCorte += c.getBandwidth();
+        }
+        assertEquals(capacidadCorte, flujo.getCapacidad(), "El flujo máximo debe coincidir con la capacidad del corte mínimo.");
+        assertTrue(flujo.getCapacidad() > 0 && flujo.getCapacidad() <= 100,
+                "PC16 tiene una única conexión de 100, que acota el flujo.");
+    }
+
+    @Test
+    @DisplayName("Caso 12: Carga en flujo de conexiones equivalente a la carga por lista")
+    void testCargaEnFlujo() throws IOException {
+        Map<String, Equipo> indice = Dato.cargarIndiceEquipos(
+                CargarParametros.getArchivoComputadoras(),
+                CargarParametros.getArchivoRouters()
+        );
+        Logica enFlujo = new Logica(new TreeMap<>(indice));
+        Dato.cargarConexiones(CargarParametros.getArchivoConexiones(), indice, enFlujo::agregarConexion);
+
+        assertEquals(logica.getConexiones().size(), enFlujo.getConexiones().size(),
+                "Ambas cargas deben producir las mismas conexiones.");
+        assertEquals(logica.MST(), enFlujo.MST(), "El árbol de expansión mínima debe coincidir.");
+        assertEquals(logica.latencia("10.0.3.51", "10.0.2.20"), enFlujo.latencia("10.0.3.51", "10.0.2.20"),
+                "La latencia entre dos equipos debe coincidir.");
+    }
+
+    @Test
+    @DisplayName("Caso 13: Una red demasiado grande para la tabla de latencias no la activa")
+    void testTablaLatenciasDemasiadoGrande() {
+        TreeMap<String, Equipo> equipos = new TreeMap<>();
+        for (int i = 0; i <= 10_000; i++) {
+            String ip = "10." + (i >> 16) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+            equipos.put(ip, new Computadora("PC" + i, ip, "00:00:00:00:00:00", true, "Sala"));
+        }
+        Logica grande = new Logica(equipos);
+        grande.agregarConexion(new Conexion(equipos.get("10.0.0.1"), equipos.get("10.0.0.2"), "Fibra", 100, 7, 0.0));
+
+        assertThrows(IllegalStateException.class, grande::precalcularLatencias,
+                "La tabla no admite más de 10000 equipos.");
+        assertEquals(7, grande.latencia("10.0.0.1", "10.0.0.2"),
+                "Sin la tabla, la latencia debe calcularse con la caché de rutas.");
+        assertEquals("10.0.0.2", grande.siguienteSalto("10.0.0.1", "10.0.0.2").getIpAddress(),
+                "Sin la tabla, el siguiente salto debe calcularse con la caché de rutas.");
+    }
+
+    @Test
+    @DisplayName("Caso 14: Kruskal, Borůvka paralelo y el bosque incremental dan el mismo peso")
+    void testMSTMismoPeso() {
+        long kruskal = pesoMST(logica.MST(ModoMST.KRUSKAL));
+        assertEquals(kruskal, pesoMST(logica.MST(ModoMST.PARALELO)), "Borůvka debe dar el mismo peso que Kruskal.");
+        assertEquals(kruskal, pesoMST(logica.MST(ModoMST.INCREMENTAL)), "El bosque incremental debe dar el mismo peso que Kruskal.");
+        assertEquals(logica.MST(ModoMST.KRUSKAL).size(), logica.MST(ModoMST.PARALELO).size(),
+                "Ambos bosques deben tener la misma cantidad de aristas.");
+
+        // grafos generados con pesos de 1 a 3, para forzar muchos empates
+        Random azar = new Random(11);
+        for (int prueba = 0; prueba < 20; prueba++) {
+            int n = 2 + azar.nextInt(300);
+            AdjacencyMapGraph<Integer, Integer> grafo = new AdjacencyMapGraph<>(false);
+            List<Vertex<Integer>> vertices = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                vertices.add(grafo.insertVertex(i));
+            }
+            for (int j = 0; j < 3 * n; j++) {
+                Vertex<Integer> u = vertices.get(azar.nextInt(n));
+                Vertex<Integer> v = vertices.get(azar.nextInt(n));
+                if (u != v && grafo.getEdge(u, v) == null) {
+                    grafo.insertEdge(u, v, 1 + azar.nextInt(3));
+                }
+            }
+            long pesoKruskal = 0;
+            int aristasKruskal = 0;
+            for (Edge<Integer> e : GraphAlgorithms.MST(grafo)) {
+                pesoKruskal += e.getElement();
+                aristasKruskal++;
+            }
+            CSRGraph<Integer, Integer> csr = CSRGraph.of(grafo, false, x -> x);
+            long pesoBoruvka = 0;
+            int[] arbol = GraphAlgorithms.parallelMST(csr);
+            for (int e : arbol) {
+                pesoBoruvka += csr.weight(e);
+            }
+            assertEquals(pesoKruskal, pesoBoruvka, "Borůvka debe dar el mismo peso que Kruskal (prueba " + prueba + ").");
+            assertEquals(aristasKruskal, arbol.length, "Ambos bosques deben tener la misma cantidad de aristas.");
+        }
+    }
+
+    @Test
+    @DisplayName("Caso 15: Jerarquía de contracción, ALT y Dijkstra bidireccional dan la distancia de Dijkstra")
+    void testBusquedasMismaDistancia() {
+        AdjacencyMapGraph<Equipo, Integer> grafo = new AdjacencyMapGraph<>(false);
+        Map<String, Vertex<Equipo>> vertices = new HashMap<>();
+        for (Conexion c : logica.getConexiones()) {
+            if (c.isStatus() && c.getSource().isStatus() && c.getTarget().isStatus()) {
+                Vertex<Equipo> u = vertices.computeIfAbsent(c.getSource().getIpAddress(), ip -> grafo.insertVertex(c.getSource()));
+                Vertex<Equipo> v = vertices.computeIfAbsent(c.getTarget().getIpAddress(), ip -> grafo.insertVertex(c.getTarget()));
+                grafo.insertEdge(u, v, c.getLatencia());
+            }
+        }
+        CSRGraph<Equipo, Integer> csr = CSRGraph.of(grafo, false, x -> x);
+        ContractionHierarchy<Equipo> jerarquia = new ContractionHierarchy<>(csr);
+        Landmarks referencias = Landmarks.select(csr, 4);
+
+        int n = csr.numVertices();
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < n; t++) {
+                int origen = s;
+                int destino = t;
+                int esperado = GraphAlgorithms.shortestPathLength(csr, origen, destino);
+                String par = csr.vertex(origen).getElement().getIpAddress() + " -> " + csr.vertex(destino).getElement().getIpAddress();
+                assertEquals(esperado, jerarquia.distance(origen, destino), "Distancia de la jerarquía para " + par);
+                if (esperado == Integer.MAX_VALUE) {
+                    assertThrows(IllegalArgumentException.class, () -> jerarquia.shortestPath(origen, destino), par);
+                    assertThrows(IllegalArgumentException.class,
+                            () -> GraphAlgorithms.altShortestPath(csr, origen, destino, referencias), par);
+                    assertThrows(IllegalArgumentException.class,
+                            () -> GraphAlgorithms.bidirectionalShortestPath(grafo, vertices.get(csr.vertex(origen).getElement().getIpAddress()),
+                                    vertices.get(csr.vertex(destino).getElement().getIpAddress())), par);
+                } else {
+                    assertEquals(esperado, largoCamino(jerarquia.shortestPath(origen, destino), csr, origen, destino),
+                            "Camino de la jerarquía para " + par);
+                    assertEquals(esperado, largoCamino(GraphAlgorithms.altShortestPath(csr, origen, destino, referencias), csr, origen, destino),
+                            "Camino ALT para " + par);
+                    Vertex<Equipo> u = vertices.get(csr.vertex(origen).getElement().getIpAddress());
+                    Vertex<Equipo> v = vertices.get(csr.vertex(destino).getElement().getIpAddress());
+                    assertEquals(esperado, largoCamino(GraphAlgorithms.bidirectionalShortestPath(grafo, u, v), grafo, u, v),
+                            "Camino bidireccional para " + par);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Caso 16: Los campos numéricos se interpretan igual que con Integer.parseInt y Double.parseDouble")
+    void testCamposNumericos() throws IOException {
+        String[] enteros = {"0", "7", "+7", "-12", "-0", "0042", "-007", "999999999", "1000000000",
+                "2147483647", "-2147483648", "0000000000000123"};
+        String[] reales = {"0.10", "0", "+0.5", "-0.25", "-0", "-0.0", "0007.50", "000.000125", ".5", "5.",
+                "0.1234567890123456789", "35.4115199428152096", "6494055386136553.60", "12345678901234567", "123456789012345.6", "0.30000000000000004",
+                "1e-3", "2.5E2", "-1.5e+3", "1.7976931348623157e308", "4.9e-324", "0.00000000000000000000001"};
+        Map<String, Equipo> equipos = new HashMap<>();
+        equipos.put("10.0.0.1", new Computadora("PC1", "10.0.0.1", "00:00:00:00:00:01", true, "Sala"));
+        equipos.put("10.0.0.2", new Computadora("PC2", "10.0.0.2", "00:00:00:00:00:02", true, "Sala"));
+
+        // se alternan fin de línea LF y CRLF, y registros con y sin el ';' final
+        StringBuilder contenido = new StringBuilder();
+        int registros = Math.max(enteros.length, reales.length);
+        for (int i = 0; i < registros; i++) {
+            contenido.append("10.0.0.1 ; 10.0.0.2;").append(i % 3 == 0 ? "" : "Fibra").append(';')
+                    .append(enteros[i % enteros.length]).append(';')
+                    .append(enteros[(i + 5) % enteros.length]).append(';')
+                    .append(reales[i % reales.length]);
+            if (i % 2 == 0) {
+                contenido.append(';');
+            }
+            contenido.append(i % 4 < 2 ? "\r\n" : "\n");
+        }
+        List<Conexion> conexiones = new ArrayList<>();
+        Dato.cargarConexiones(archivoTemporal(contenido.toString()), equipos, conexiones::add);
+
+        assertEquals(registros, conexiones.size(), "Debe leerse una conexión por línea.");
+        for (int i = 0; i < registros; i++) {
+            Conexion c = conexiones.get(i);
+            String linea = "línea " + (i + 1);
+            assertEquals("10.0.0.1", c.getSource().getIpAddress(), linea);
+            assertEquals("10.0.0.2", c.getTarget().getIpAddress(), linea);
+            assertEquals(i % 3 == 0 ? "" : "Fibra", c.getTipoConexion(), linea);
+            assertEquals(Integer.parseInt(enteros[i % enteros.length]), c.getBandwidth(), linea);
+            assertEquals(Integer.parseInt(enteros[(i + 5) % enteros.length]), c.getLatencia(), linea);
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(reales[i % reales.length])),
+                    Double.doubleToLongBits(c.getErrorRate()), linea + ": " + reales[i % reales.length]);
+        }
+
+        // el último campo de un equipo, sin ';' y con CRLF, no debe arrastrar el '\r'
+        String computadoras = archivoTemporal("PC1;10.0.0.1;00:00:00:00:00:01;TRUE;Sala 01\r\nPC2;10.0.0.2;00:00:00:00:00:02;false;\r\n");
+        String routers = archivoTemporal("R1;10.0.0.3;00:00:00:00:00:03;true;Sala 02;Modelo;Firmware;+0600\r\n");
+        Map<String, Equipo> leidos = Dato.cargarIndiceEquipos(computadoras, routers);
+        assertEquals("Sala 01", leidos.get("10.0.0.1").getUbicacion());
+        assertTrue(leidos.get("10.0.0.1").isStatus(), "TRUE debe leerse como Boolean.parseBoolean.");
+        assertEquals("", leidos.get("10.0.0.2").getUbicacion(), "Un último campo vacío debe leerse como \"\".");
+        assertEquals(600, ((Router) leidos.get("10.0.0.3")).getThroughput());
+
+        String invalido = archivoTemporal("10.0.0.1;10.0.0.2;Fibra;12a;5;0.1;\n");
+        assertThrows(NumberFormatException.class, () -> Dato.cargarConexiones(invalido, equipos, c -> { }),
+                "Un entero mal formado debe rechazarse como con Integer.parseInt.");
+        String desborde = archivoTemporal("10.0.0.1;10.0.0.2;Fibra;2147483648;5;0.1;\n");
+        assertThrows(NumberFormatException.class, () -> Dato.cargarConexiones(desborde, equipos, c -> { }),
+                "Un entero fuera de rango debe rechazarse como con Integer.parseInt.");
+        String realInvalido = archivoTemporal("10.0.0.1;10.0.0.2;Fibra;1;5;0.1.2;\n");
+        assertThrows(NumberFormatException.class, () -> Dato.cargarConexiones(realInvalido, equipos, c -> { }),
+                "Un real mal formado debe rechazarse como con Double.parseDouble.");
+    }
+
+    @Test
+    @DisplayName("Caso 17: La carga de los archivos reales coincide con la lectura con Scanner")
+    void testCargaIgualAScanner() throws IOException {
+        TreeMap<String, Equipo> equipos = Dato.cargarEquipos(
+                CargarParametros.getArchivoComputadoras(),
+                CargarParametros.getArchivoRouters()
+        );
+        List<String[]> routers = registrosConScanner(CargarParametros.getArchivoRouters(), 8);
+        List<String[]> computadoras = registrosConScanner(CargarParametros.getArchivoComputadoras(), 5);
+
+        // igual que la carga original: primero los routers y luego las computadoras, que prevalecen
+        TreeMap<String, String[]> esperados = new TreeMap<>();
+        for (String[] r : routers) {
+            esperados.put(r[1], r);
+        }
+        for (String[] c : computadoras) {
+            esperados.put(c[1], c);
+        }
+        assertEquals(esperados.keySet(), equipos.keySet(), "Deben cargarse los mismos equipos.");
+        for (String[] campos : esperados.values()) {
+            Equipo e = equipos.get(campos[1]);
+            assertEquals(campos[0], e.getId());
+            assertEquals(campos[2], e.getMacAddress());
+            assertEquals(Boolean.parseBoolean(campos[3]), e.isStatus(), campos[1]);
+            assertEquals(campos[4], e.getUbicacion());
+            assertEquals(campos.length == 8, e instanceof Router, campos[1]);
+            if (e instanceof Router) {
+                Router r = (Router) e;
+                assertEquals(campos[5], r.getModelo());
+                assertEquals(campos[6], r.getFirmware());
+                assertEquals(Integer.parseInt(campos[7]), r.getThroughput(), campos[1]);
+            }
+        }
+
+        List<Conexion> conexiones = Dato.cargarConexiones(CargarParametros.getArchivoConexiones(), equipos);
+        List<String[]> esperadas = new ArrayList<>();
+        for (String[] campos : registrosConScanner(CargarParametros.getArchivoConexiones(), 6)) {
+            if (equipos.containsKey(campos[0]) && equipos.containsKey(campos[1])) {
+                esperadas.add(campos);
+            }
+        }
+        assertEquals(esperadas.size(), conexiones.size(), "Deben cargarse las mismas conexiones.");
+        for (int i = 0; i < conexiones.size(); i++) {
+            String[] campos = esperadas.get(i);
+            Conexion c = conexiones.get(i);
+            assertEquals(campos[0], c.getSource().getIpAddress());
+            assertEquals(campos[1], c.getTarget().getIpAddress());
+            assertEquals(campos[2], c.getTipoConexion());
+            assertEquals(Integer.parseInt(campos[3]), c.getBandwidth(), campos[0] + " - " + campos[1]);
+            assertEquals(Integer.parseInt(campos[4]), c.getLatencia(), campos[0] + " - " + campos[1]);
+            assertEquals(Double.parseDouble(campos[5]), c.getErrorRate(), campos[0] + " - " + campos[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Caso 18: La carga en paralelo por trozos da las mismas conexiones que la secuencial")
+    void testCargaParalela() throws IOException {
+        TreeMap<String, Equipo> equipos = new TreeMap<>();
+        for (int i = 1; i <= 4; i++) {
+            String ip = "10.0.0." + i;
+            equipos.put(ip, new Computadora("PC" + i, ip, "00:00:00:00:00:0" + i, true, "Sala"));
+        }
+        int megabyte = 1 << 20;
+
+        // los trozos miden 1 MiB en archivos de hasta 4 MiB: el primer corte cae justo sobre un
+        // '\n', el segundo justo después de uno y el tercero en medio de una línea
+        StringBuilder cortes = new StringBuilder();
+        lineasHasta(cortes, megabyte);
+        lineasHasta(cortes, 2 * megabyte - 1);
+        lineasHasta(cortes, 3 * megabyte + 1000);
+        cortes.append("10.0.0.9;10.0.0.1;Wifi;10;1;0.5;\n");
+        cortes.append("10.0.0.4;10.0.0.1;Wifi;10;1;0.5;");
+        assertMismaCarga(archivoTemporal(cortes.toString()), equipos, "cortes sobre fin de línea");
+
+        assertMismaCarga(archivoTemporal("10.0.0.1;10.0.0.2;Fibra;100;5;0.01;\n10.0.0.2;10.0.0.3;Wifi;10;7;0.2"),
+                equipos, "sin fin de línea al final");
+        assertMismaCarga(archivoTemporal(""), equipos, "archivo vacío");
+
+        // dos líneas de más de 1.5 MiB: cuatro trozos para dos registros
+        StringBuilder largas = new StringBuilder();
+        for (int i = 0; i < 2; i++) {
+            largas.append("10.0.0.1;10.0.0.").append(i + 2).append(';');
+            for (int j = 0; j < 3 * megabyte / 2 + 100; j++) {
+                largas.append('x');
+            }
+            largas.append(";100;").append(i).append(";0.01;\n");
+        }
+        assertMismaCarga(archivoTemporal(largas.toString()), equipos, "más trozos que líneas");
+    }
+
+    /**
+     * Suma las latencias de las líneas que devuelve Logica.MST.
+     */
+    private static long pesoMST(List<String> lineas) {
+        long peso = 0;
+        for (String linea : lineas) {
+            int inicio = linea.indexOf("[Latencia: ") + "[Latencia: ".length();
+            peso += Integer.parseInt(linea.substring(inicio, linea.indexOf(" ms]")));
+        }
+        return peso;
+    }
+
+    /**
+     * Suma las latencias de un camino, verificando que una los extremos esperados por aristas
+     * existentes del grafo.
+     */
+    private static <V> int largoCamino(PositionalList<Vertex<V>> camino, Graph<V, Integer> grafo,
+                                       Vertex<V> origen, Vertex<V> destino) {
+        assertEquals(origen, camino.first().getElement(), "El camino debe comenzar en el origen.");
+        assertEquals(destino, camino.last().getElement(), "El camino debe terminar en el destino.");
+        int largo = 0;
+        Vertex<V> anterior = null;
+        for (Vertex<V> v : camino) {
+            if (anterior != null) {
+                Edge<Integer> e = grafo.getEdge(anterior, v);
+                assertNotNull(e, "Cada paso del camino debe ser una conexión del grafo.");
+                largo += e.getElement();
+            }
+            anterior = v;
+        }
+        return largo;
+    }
+
+    private static <V> int largoCamino(PositionalList<Vertex<V>> camino, CSRGraph<V, Integer> grafo,
+                                       int origen, int destino) {
+        return largoCamino(camino, grafo, grafo.vertex(origen), grafo.vertex(destino));
+    }
+
+    /**
+     * Lee un archivo con Scanner y el delimitador "\\s*;\\s*", como lo hacía la carga original,
+     * en registros de la cantidad de campos indicada.
+     */
+    private static List<String[]> registrosConScanner(String archivo, int campos) throws IOException {
+        List<String[]> registros = new ArrayList<>();
+        try (Scanner read = new Scanner(new File(archivo))) {
+            read.useDelimiter("\\s*;\\s*");
+            while (read.hasNext()) {
+                String[] registro = new String[campos];
+                for (int i = 0; i < campos; i++) {
+                    registro[i] = read.next();
+                }
+                registros.add(registro);
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Crea un archivo temporal, que se borra al terminar, con el contenido indicado.
+     *
+     * @return La ruta del archivo.
+     */
+    private static String archivoTemporal(String contenido) throws IOException {
+        File archivo = File.createTempFile("red", ".txt");
+        archivo.deleteOnExit();
+        Files.write(archivo.toPath(), contenido.getBytes(StandardCharsets.UTF_8));
+        return archivo.getPath();
+    }
+
+    /**
+     * Agrega conexiones al contenido hasta que la última termine con un '\n' en la posición fin.
+     */
+    private static void lineasHasta(StringBuilder contenido, int fin) {
+        int i = 0;
+        while (fin - contenido.length() > 200) {
+            contenido.append("10.0.0.").append(1 + i % 4).append(";10.0.0.").append(1 + (i + 1) % 4)
+                    .append(";Fibra;").append(100 + i % 900).append(';').append(i % 50).append(";0.0").append(i % 10).append(";\n");
+            i++;
+        }
+        String inicio = "10.0.0.1;10.0.0.3;";
+        String resto = ";1000;3;0.25;\n";
+        contenido.append(inicio);
+        for (int relleno = fin + 1 - contenido.length() - resto.length(); relleno > 0; relleno--) {
+            contenido.append('P');
+        }
+        contenido.append(resto);
+        assertEquals(fin, contenido.length() - 1, "El fin de línea debe quedar en la posición pedida.");
+    }
+
+    /**
+     * Verifica que cargarConexionesParalelo entregue las mismas conexiones, en el mismo orden,
+     * que la carga secuencial del mismo archivo.
+     */
+    private static void assertMismaCarga(String archivo, TreeMap<String, Equipo> equipos, String caso) throws IOException {
+        List<Conexion> secuencial = Dato.cargarConexiones(archivo, equipos);
+        List<Conexion> paralela = Dato.cargarConexionesParalelo(archivo, equipos);
+        assertEquals(secuencial.size(), paralela.size(), caso);
+        for (int i = 0; i < secuencial.size(); i++) {
+            assertEquals(secuencial.get(i).toString(), paralela.get(i).toString(), caso + ", conexión " + i);
+        }
+    }
+}